@@ -0,0 +1,261 @@
+package com.devebot.opflow;
+
+import com.devebot.opflow.OpflowLogTracer.Level;
+import com.devebot.opflow.supports.OpflowObjectTree;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author acegik
+ */
+public class OpflowCircuitBreaker {
+    private final static Logger LOG = LoggerFactory.getLogger(OpflowCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN };
+
+    private final OpflowLogTracer logTracer;
+    private final boolean enabled;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRate;
+    private final long slowCallDuration;
+    private final int slowCallRate;
+    private final long openDuration;
+    private final int halfOpenProbes;
+
+    private final ConcurrentMap<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    public OpflowCircuitBreaker(OpflowLogTracer parentTracer, Map<String, Object> kwargs) {
+        kwargs = OpflowObjectTree.ensureNonNull(kwargs);
+        logTracer = parentTracer.copy();
+
+        enabled = OpflowUtil.getBooleanField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_ENABLED, Boolean.TRUE);
+        windowSize = Math.max(1, OpflowUtil.getIntegerField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_WINDOW_SIZE, 20));
+        minimumCalls = Math.max(1, Math.min(windowSize, OpflowUtil.getIntegerField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_MINIMUM_CALLS, 5)));
+        failureRate = OpflowUtil.getIntegerField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_FAILURE_RATE, 50);
+        slowCallDuration = OpflowUtil.getLongField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_DURATION, 0l);
+        slowCallRate = OpflowUtil.getIntegerField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_RATE, 100);
+        openDuration = OpflowUtil.getLongField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_OPEN_DURATION, 10000l);
+        halfOpenProbes = Math.max(1, OpflowUtil.getIntegerField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_BREAKER_HALF_OPEN_PROBES, 1));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns true if a call of the routine may be sent to the worker. In the
+     * half-open state only a limited number of probe calls are let through.
+     */
+    public boolean allowRequest(OpflowConstant.Protocol protocol, String routineSignature, String componentId) {
+        if (!enabled) {
+            return true;
+        }
+        Breaker breaker = breakers.get(buildKey(protocol, routineSignature, componentId));
+        if (breaker == null) {
+            return true;
+        }
+        return breaker.allowRequest();
+    }
+
+    /**
+     * Gives back the probe slot taken by allowRequest() when the request has
+     * not been sent after all, so that it has no outcome to record.
+     */
+    public void releaseRequest(OpflowConstant.Protocol protocol, String routineSignature, String componentId) {
+        if (!enabled) {
+            return;
+        }
+        Breaker breaker = breakers.get(buildKey(protocol, routineSignature, componentId));
+        if (breaker != null) {
+            breaker.release();
+        }
+    }
+
+    public void recordOutcome(OpflowConstant.Protocol protocol, String routineSignature, String componentId, long latency, boolean ok) {
+        if (!enabled) {
+            return;
+        }
+        String key = buildKey(protocol, routineSignature, componentId);
+        Breaker breaker = breakers.get(key);
+        if (breaker == null) {
+            Breaker created = new Breaker(key);
+            breaker = breakers.putIfAbsent(key, created);
+            if (breaker == null) {
+                breaker = created;
+            }
+        }
+        breaker.record(!ok, slowCallDuration > 0 && latency > slowCallDuration);
+    }
+
+    public State getState(OpflowConstant.Protocol protocol, String routineSignature, String componentId) {
+        Breaker breaker = breakers.get(buildKey(protocol, routineSignature, componentId));
+        if (breaker == null) {
+            return State.CLOSED;
+        }
+        return breaker.getState();
+    }
+
+    public void remove(String componentId) {
+        if (componentId == null) return;
+        for (String key : breakers.keySet()) {
+            if (key.endsWith("#" + componentId)) {
+                breakers.remove(key);
+            }
+        }
+    }
+
+    public void reset() {
+        breakers.clear();
+    }
+
+    public Map<String, Object> toMap() {
+        OpflowObjectTree.Builder<Object> states = OpflowObjectTree.buildMap();
+        for (Map.Entry<String, Breaker> entry : breakers.entrySet()) {
+            states.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return OpflowObjectTree.buildMap()
+                .put(OpflowConstant.OPFLOW_COMMON_ENABLED, enabled)
+                .put(OpflowConstant.OPFLOW_COUNSELOR_BREAKER_WINDOW_SIZE, windowSize)
+                .put(OpflowConstant.OPFLOW_COUNSELOR_BREAKER_MINIMUM_CALLS, minimumCalls)
+                .put(OpflowConstant.OPFLOW_COUNSELOR_BREAKER_FAILURE_RATE, failureRate)
+                .put(OpflowConstant.OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_DURATION, slowCallDuration)
+                .put(OpflowConstant.OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_RATE, slowCallRate)
+                .put(OpflowConstant.OPFLOW_COUNSELOR_BREAKER_OPEN_DURATION, openDuration)
+                .put(OpflowConstant.OPFLOW_COUNSELOR_BREAKER_HALF_OPEN_PROBES, halfOpenProbes)
+                .put("breakers", states.toMap())
+                .toMap();
+    }
+
+    private static String buildKey(OpflowConstant.Protocol protocol, String routineSignature, String componentId) {
+        return protocol.name() + "#" + routineSignature + "#" + ((componentId != null) ? componentId : "*");
+    }
+
+    private class Breaker {
+        private final String key;
+        // sliding window of the latest outcomes, used as a ring buffer
+        private final boolean[] failures = new boolean[windowSize];
+        private final boolean[] slows = new boolean[windowSize];
+        private int cursor = 0;
+        private int calls = 0;
+        private int failureTotal = 0;
+        private int slowTotal = 0;
+
+        private State state = State.CLOSED;
+        private long openedTime = 0;
+        private long probedTime = 0;
+        private int probesInFlight = 0;
+        private int probesPassed = 0;
+
+        Breaker(String key) {
+            this.key = key;
+        }
+
+        synchronized boolean allowRequest() {
+            switch (state) {
+                case OPEN:
+                    if (System.currentTimeMillis() - openedTime < openDuration) {
+                        return false;
+                    }
+                    transit(State.HALF_OPEN);
+                    probesInFlight = 1;
+                    probedTime = System.currentTimeMillis();
+                    return true;
+                case HALF_OPEN:
+                    if (probesInFlight > 0 && System.currentTimeMillis() - probedTime >= openDuration) {
+                        // the outcomes of the previous probes have been lost
+                        probesInFlight = 0;
+                    }
+                    if (probesInFlight + probesPassed >= halfOpenProbes) {
+                        return false;
+                    }
+                    probesInFlight++;
+                    probedTime = System.currentTimeMillis();
+                    return true;
+                default:
+                    return true;
+            }
+        }
+
+        synchronized void release() {
+            if (state == State.HALF_OPEN && probesInFlight > 0) {
+                probesInFlight--;
+            }
+        }
+
+        synchronized void record(boolean failed, boolean slow) {
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight > 0) probesInFlight--;
+                if (failed || slow) {
+                    transit(State.OPEN);
+                    return;
+                }
+                if (++probesPassed >= halfOpenProbes) {
+                    transit(State.CLOSED);
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // late outcome of a request sent before the breaker opened
+                return;
+            }
+            if (calls == windowSize) {
+                if (failures[cursor]) failureTotal--;
+                if (slows[cursor]) slowTotal--;
+            } else {
+                calls++;
+            }
+            failures[cursor] = failed;
+            slows[cursor] = slow;
+            if (failed) failureTotal++;
+            if (slow) slowTotal++;
+            cursor = (cursor + 1) % windowSize;
+
+            if (calls >= minimumCalls) {
+                if (failureTotal * 100 >= failureRate * calls || (slowCallDuration > 0 && slowTotal * 100 >= slowCallRate * calls)) {
+                    transit(State.OPEN);
+                }
+            }
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        private void transit(State next) {
+            if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                    .put("breakerKey", key)
+                    .put("fromState", state.name())
+                    .put("toState", next.name())
+                    .text("CircuitBreaker[${breakerKey}] changes state from ${fromState} to ${toState}")
+                    .stringify());
+            state = next;
+            probesInFlight = 0;
+            probesPassed = 0;
+            switch (next) {
+                case OPEN:
+                    openedTime = System.currentTimeMillis();
+                    break;
+                case CLOSED:
+                    cursor = calls = failureTotal = slowTotal = 0;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        synchronized Map<String, Object> toMap() {
+            return OpflowObjectTree.buildMap()
+                    .put("state", state.name())
+                    .put("calls", calls)
+                    .put("failureRate", (calls > 0) ? (failureTotal * 100 / calls) : 0)
+                    .put("slowCallRate", (calls > 0) ? (slowTotal * 100 / calls) : 0)
+                    .put("openedTime", openedTime, state != State.CLOSED)
+                    .toMap();
+        }
+    }
+}
@@ -16,18 +16,35 @@ import com.devebot.opflow.supports.OpflowCollectionUtil;
 import com.devebot.opflow.supports.OpflowDateTime;
 import com.devebot.opflow.supports.OpflowSystemInfo;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +70,9 @@ public class OpflowCommander implements AutoCloseable {
         OpflowConstant.COMP_RPC_HTTP_MASTER,
         OpflowConstant.COMP_RPC_WATCHER,
         OpflowConstant.COMP_GARBAGE_COLLECTOR,
+        OpflowConstant.COMP_RESULT_CACHE,
+        OpflowConstant.COMP_RPC_SELECTOR,
+        OpflowConstant.COMP_QUEUE_SAMPLER,
         OpflowConstant.COMP_SPEED_METER,
         OpflowConstant.COMP_PROM_EXPORTER,
         OpflowConstant.COMP_REST_SERVER,
@@ -63,6 +83,7 @@ public class OpflowCommander implements AutoCloseable {
     public final static boolean KEEP_LOGIC_CLEARLY = false;
     
     private final static Logger LOG = LoggerFactory.getLogger(OpflowCommander.class);
+    private final static ThreadLocal<OpflowRpcAmqpRequest.Subscriber> PROGRESS_SUBSCRIBER = new ThreadLocal<>();
     
     private final Object runningLock = new Object();
     private volatile boolean runningActive = false;
@@ -79,6 +100,8 @@ public class OpflowCommander implements AutoCloseable {
     private OpflowRestrictorMaster restrictor;
     
     private boolean nativeWorkerEnabled;
+    private long hedgingDelay;
+    private ExecutorService callbackExecutor;
     private OpflowRpcAmqpMaster amqpMaster;
     private OpflowRpcHttpMaster httpMaster;
     private OpflowPubsubHandler publisher;
@@ -87,6 +110,9 @@ public class OpflowCommander implements AutoCloseable {
     private OpflowRpcObserver rpcObserver;
     private OpflowGarbageCollector garbageCollector;
     private OpflowRestServer restServer;
+    private OpflowResultCache resultCache;
+    private OpflowRpcSelector rpcSelector;
+    private OpflowQueueSampler queueSampler;
     private OpflowReqExtractor reqExtractor;
 
     public OpflowCommander() throws OpflowBootstrapException {
@@ -154,6 +180,18 @@ public class OpflowCommander implements AutoCloseable {
         
         nativeWorkerEnabled = OpflowUtil.getBooleanField(kwargs, OpflowConstant.PARAM_NATIVE_WORKER_ENABLED, Boolean.TRUE);
         
+        hedgingDelay = OpflowUtil.getLongField(kwargs, OpflowConstant.PARAM_HEDGING_DELAY, 200l);
+        
+        Integer callbackPoolSize = OpflowUtil.getIntegerField(kwargs, OpflowConstant.PARAM_CALLBACK_POOL_SIZE, null);
+        if (callbackPoolSize == null || callbackPoolSize <= 0) {
+            callbackPoolSize = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        }
+        Integer callbackQueueSize = OpflowUtil.getIntegerField(kwargs, OpflowConstant.PARAM_CALLBACK_QUEUE_SIZE, null);
+        if (callbackQueueSize == null || callbackQueueSize <= 0) {
+            callbackQueueSize = 1024;
+        }
+        callbackExecutor = createCallbackExecutor(callbackPoolSize, callbackQueueSize);
+        
         if (nativeWorkerEnabled) {
             counter.setNativeWorkerEnabled(true);
             if (speedMeter != null) {
@@ -176,6 +214,9 @@ public class OpflowCommander implements AutoCloseable {
         Map<String, Object> rpcObserverCfg = OpflowUtil.getChildMap(kwargs, OpflowConstant.COMP_RPC_OBSERVER);
         Map<String, Object> rpcWatcherCfg = OpflowUtil.getChildMap(kwargs, OpflowConstant.COMP_RPC_WATCHER);
         Map<String, Object> garbageCollectorCfg = OpflowUtil.getChildMap(kwargs, OpflowConstant.COMP_GARBAGE_COLLECTOR);
+        Map<String, Object> resultCacheCfg = OpflowUtil.getChildMap(kwargs, OpflowConstant.COMP_RESULT_CACHE);
+        Map<String, Object> rpcSelectorCfg = OpflowUtil.getChildMap(kwargs, OpflowConstant.COMP_RPC_SELECTOR);
+        Map<String, Object> queueSamplerCfg = OpflowUtil.getChildMap(kwargs, OpflowConstant.COMP_QUEUE_SAMPLER);
         Map<String, Object> restServerCfg = OpflowUtil.getChildMap(kwargs, OpflowConstant.COMP_REST_SERVER);
 
         HashSet<String> checkExchange = new HashSet<>();
@@ -264,6 +305,38 @@ public class OpflowCommander implements AutoCloseable {
                         .toMap());
             }
 
+            if (OpflowUtil.isComponentExplicitEnabled(resultCacheCfg)) {
+                resultCache = new OpflowResultCache(OpflowObjectTree.buildMap(resultCacheCfg)
+                        .put(OpflowConstant.COMPONENT_ID, componentId)
+                        .put(OpflowConstant.COMP_MEASURER, measurer)
+                        .toMap());
+            }
+
+            if (OpflowUtil.isComponentExplicitEnabled(rpcSelectorCfg)) {
+                rpcSelector = new OpflowRpcSelector(OpflowObjectTree.buildMap(rpcSelectorCfg)
+                        .put(OpflowConstant.COMPONENT_ID, componentId)
+                        .toMap());
+            }
+
+            // the sampler polls the broker, so it only runs when it has been enabled explicitly
+            if ((amqpMaster != null || publisher != null) && OpflowUtil.isComponentExplicitEnabled(queueSamplerCfg)) {
+                queueSampler = new OpflowQueueSampler(OpflowObjectTree.buildMap(queueSamplerCfg)
+                        .put(OpflowConstant.COMPONENT_ID, componentId)
+                        .toMap());
+                if (amqpMaster != null) {
+                    final OpflowEngine amqpEngine = amqpMaster.getEngine();
+                    queueSampler.register(amqpMaster.getExecutor(), amqpMaster.getDispatchQueueName(), new OpflowQueueSampler.Counter() {
+                        @Override
+                        public long getCount() {
+                            return amqpEngine.getPublishCount();
+                        }
+                    });
+                }
+                if (publisher != null) {
+                    queueSampler.register(publisher.getExecutor());
+                }
+            }
+
             if (isRemoteRpcAvailable()) {
                 rpcWatcher = new OpflowRpcWatcher(rpcChecker, garbageCollector, OpflowObjectTree.buildMap(rpcWatcherCfg)
                         .put(OpflowConstant.COMPONENT_ID, componentId)
@@ -272,7 +345,7 @@ public class OpflowCommander implements AutoCloseable {
             }
 
             OpflowInfoCollector infoCollector = new OpflowInfoCollectorMaster(componentId, measurer, restrictor, amqpMaster, httpMaster, publisher, handlers, speedMeter,
-                    discoveryMaster, rpcObserver, rpcWatcher, serviceName);
+                    discoveryMaster, rpcObserver, rpcWatcher, resultCache, rpcSelector, queueSampler, serviceName);
 
             OpflowTaskSubmitter taskSubmitter = new OpflowTaskSubmitterMaster(componentId, measurer, restrictor, amqpMaster, httpMaster, publisher, handlers, speedMeter,
                     discoveryMaster);
@@ -329,6 +402,9 @@ public class OpflowCommander implements AutoCloseable {
             if (rpcWatcher != null) {
                 rpcWatcher.serve();
             }
+            if (queueSampler != null) {
+                queueSampler.serve();
+            }
             if (speedMeter != null) {
                 speedMeter.serve();
             }
@@ -362,10 +438,13 @@ public class OpflowCommander implements AutoCloseable {
 
             if (restServer != null) restServer.close();
             if (rpcWatcher != null) rpcWatcher.close();
+            if (queueSampler != null) queueSampler.close();
 
             if (publisher != null) publisher.close();
             if (amqpMaster != null) amqpMaster.close();
             if (httpMaster != null) httpMaster.close();
+            
+            callbackExecutor.shutdown();
 
             if (discoveryMaster != null) {
                 discoveryMaster.close();
@@ -848,6 +927,9 @@ public class OpflowCommander implements AutoCloseable {
         private final OpflowDiscoveryMaster discoveryMaster;
         private final OpflowRpcObserver rpcObserver;
         private final OpflowRpcWatcher rpcWatcher;
+        private final OpflowResultCache resultCache;
+        private final OpflowRpcSelector rpcSelector;
+        private final OpflowQueueSampler queueSampler;
         private final String serviceName;
         private final Date startTime;
 
@@ -862,6 +944,9 @@ public class OpflowCommander implements AutoCloseable {
                 OpflowDiscoveryMaster discoveryMaster,
                 OpflowRpcObserver rpcObserver,
                 OpflowRpcWatcher rpcWatcher,
+                OpflowResultCache resultCache,
+                OpflowRpcSelector rpcSelector,
+                OpflowQueueSampler queueSampler,
                 String serviceName
         ) {
             this.componentId = componentId;
@@ -875,6 +960,9 @@ public class OpflowCommander implements AutoCloseable {
             this.discoveryMaster = discoveryMaster;
             this.rpcObserver = rpcObserver;
             this.rpcWatcher = rpcWatcher;
+            this.resultCache = resultCache;
+            this.rpcSelector = rpcSelector;
+            this.queueSampler = queueSampler;
             this.serviceName = serviceName;
             this.startTime = new Date();
         }
@@ -947,6 +1035,7 @@ public class OpflowCommander implements AutoCloseable {
                                     opt2.put(OpflowConstant.OPFLOW_PUBSUB_EXCHANGE_TYPE, engine.getExchangeType());
                                     opt2.put(OpflowConstant.OPFLOW_PUBSUB_EXCHANGE_DURABLE, engine.getExchangeDurable());
                                     opt2.put(OpflowConstant.OPFLOW_PUBSUB_ROUTING_KEY, engine.getRoutingKey());
+                                    opt2.put(OpflowConstant.OPFLOW_PRODUCING_CHANNEL_POOL, engine.getProducingInfo());
                                 }
                             }).toMap());
                         } else {
@@ -972,12 +1061,14 @@ public class OpflowCommander implements AutoCloseable {
                                     opt2.put(OpflowConstant.OPFLOW_DISPATCH_EXCHANGE_DURABLE, engine.getExchangeDurable());
                                 }
                                 opt2.put(OpflowConstant.OPFLOW_DISPATCH_ROUTING_KEY, engine.getRoutingKey());
+                                opt2.put(OpflowConstant.OPFLOW_PRODUCING_CHANNEL_POOL, engine.getProducingInfo());
 
                                 opt2.put(OpflowConstant.OPFLOW_RESPONSE_QUEUE_NAME, amqpMaster.getResponseQueueName());
                                 if (checkOption(flag, SCOPE_INFO)) {
                                     opt2.put(OpflowConstant.OPFLOW_RESPONSE_QUEUE_DURABLE, amqpMaster.getResponseQueueDurable());
                                     opt2.put(OpflowConstant.OPFLOW_RESPONSE_QUEUE_EXCLUSIVE, amqpMaster.getResponseQueueExclusive());
                                     opt2.put(OpflowConstant.OPFLOW_RESPONSE_QUEUE_AUTO_DELETE, amqpMaster.getResponseQueueAutoDelete());
+                                    opt2.put(OpflowConstant.OPFLOW_RESPONSE_DIRECT_REPLY_TO, amqpMaster.isResponseDirectReplyTo());
                                 }
 
                                 opt2.put(OpflowConstant.OPFLOW_COMMON_CHANNEL, OpflowObjectTree.buildMap()
@@ -1000,8 +1091,11 @@ public class OpflowCommander implements AutoCloseable {
                                         .put(OpflowConstant.HTTP_MASTER_PARAM_CALL_TIMEOUT, httpMaster.getCallTimeout())
                                         .put(OpflowConstant.HTTP_MASTER_PARAM_PUSH_TIMEOUT, httpMaster.getWriteTimeout())
                                         .put(OpflowConstant.HTTP_MASTER_PARAM_PULL_TIMEOUT, httpMaster.getReadTimeout())
+                                        .put(OpflowConstant.OPFLOW_COMMON_H2C_ENABLED, httpMaster.isH2cEnabled())
                                         .put("headers", CONST.getHTTPHeaderInfo(), checkOption(flag, SCOPE_INFO))
                                         .toMap());
+                                opt2.put("dispatcher", httpMaster.getDispatcherInfo());
+                                opt2.put("connectionPool", httpMaster.getConnectionPoolInfo());
                             }
                         }).toMap());
                     }
@@ -1067,6 +1161,39 @@ public class OpflowCommander implements AutoCloseable {
                         }
                     }
                     
+                    // resultCache information
+                    if (checkOption(flag, SCOPE_INFO)) {
+                        if (resultCache != null) {
+                            opts.put(OpflowConstant.COMP_RESULT_CACHE, resultCache.toMap());
+                        } else {
+                            opts.put(OpflowConstant.COMP_RESULT_CACHE, OpflowObjectTree.buildMap()
+                                    .put(OpflowConstant.OPFLOW_COMMON_ENABLED, false)
+                                    .toMap());
+                        }
+                    }
+                    
+                    // rpcSelector information
+                    if (checkOption(flag, SCOPE_INFO)) {
+                        if (rpcSelector != null) {
+                            opts.put(OpflowConstant.COMP_RPC_SELECTOR, rpcSelector.toMap());
+                        } else {
+                            opts.put(OpflowConstant.COMP_RPC_SELECTOR, OpflowObjectTree.buildMap()
+                                    .put(OpflowConstant.OPFLOW_COMMON_ENABLED, false)
+                                    .toMap());
+                        }
+                    }
+                    
+                    // queueSampler information
+                    if (checkOption(flag, SCOPE_INFO)) {
+                        if (queueSampler != null) {
+                            opts.put(OpflowConstant.COMP_QUEUE_SAMPLER, queueSampler.toMap());
+                        } else {
+                            opts.put(OpflowConstant.COMP_QUEUE_SAMPLER, OpflowObjectTree.buildMap()
+                                    .put(OpflowConstant.OPFLOW_COMMON_ENABLED, false)
+                                    .toMap());
+                        }
+                    }
+                    
                     // promExporter information
                     if (checkOption(flag, SCOPE_INFO)) {
                         Map<String, Object> info = measurer.getServiceInfo();
@@ -1167,6 +1294,16 @@ public class OpflowCommander implements AutoCloseable {
                 }
             }
             
+            // state of the circuit breakers
+            if (rpcObserver != null) {
+                metrics.put(OpflowPromMeasurer.LABEL_RPC_CIRCUIT_BREAKER, rpcObserver.getCircuitBreaker().toMap());
+            }
+            
+            // backlog of the sampled queues
+            if (queueSampler != null) {
+                metrics.put(OpflowPromMeasurer.LABEL_QUEUE_BACKLOG, queueSampler.getQueueStats());
+            }
+            
             return OpflowObjectTree.buildMap()
                     .put("metrics", metrics)
                     .put("metadata", speedMeter.getMetadata())
@@ -1214,19 +1351,26 @@ public class OpflowCommander implements AutoCloseable {
         private final OpflowRpcAmqpMaster amqpMaster;
         private final OpflowRpcHttpMaster httpMaster;
         private final OpflowPubsubHandler publisher;
+        private final OpflowResultCache resultCache;
+        private final OpflowRpcSelector rpcSelector;
         
         private final Class clazz;
         private final Object nativeWorker;
         private final boolean nativeWorkerEnabled;
+        private final long hedgingDelay;
+        private final ExecutorService callbackExecutor;
         private boolean nativeWorkerActive = true;
-        private final Map<String, String> aliasOfMethod = new HashMap<>();
-        private final Map<String, Boolean> methodIsAsync = new HashMap<>();
+        private final Map<Method, RoutineDescriptor> descriptors = new LinkedHashMap<>();
+        private volatile Map<Method, RoutineDescriptor> descriptorTable = new IdentityHashMap<>();
+        // the in-flight calls share the JSON output, every caller parses its own copy of the result
+        private final ConcurrentMap<String, CompletableFuture<String>> inflights = new ConcurrentHashMap<>();
 
         private boolean publisherActive = true;
         private boolean remoteAMQPWorkerActive = true;
         private boolean remoteHTTPWorkerActive = true;
         
         private final int[] masterFlags;
+        private final int[] reverseFlags;
         
         public RpcInvocationHandler(
             OpflowLogTracer logTracer,
@@ -1237,9 +1381,13 @@ public class OpflowCommander implements AutoCloseable {
             OpflowRpcAmqpMaster amqpMaster,
             OpflowRpcHttpMaster httpMaster,
             OpflowPubsubHandler publisher,
+            OpflowResultCache resultCache,
+            OpflowRpcSelector rpcSelector,
             Class clazz,
             Object nativeWorker,
-            boolean nativeWorkerEnabled
+            boolean nativeWorkerEnabled,
+            long hedgingDelay,
+            ExecutorService callbackExecutor
         ) {
             this.logTracer = logTracer;
             this.measurer = measurer;
@@ -1250,48 +1398,78 @@ public class OpflowCommander implements AutoCloseable {
             this.amqpMaster = amqpMaster;
             this.httpMaster = httpMaster;
             this.publisher = publisher;
+            this.resultCache = resultCache;
+            this.rpcSelector = rpcSelector;
             
             this.masterFlags = new int[] { FLAG_AMQP, FLAG_HTTP };
+            this.reverseFlags = new int[] { FLAG_HTTP, FLAG_AMQP };
             
             this.clazz = clazz;
             this.nativeWorker = nativeWorker;
             this.nativeWorkerEnabled = nativeWorkerEnabled;
+            this.hedgingDelay = hedgingDelay;
+            this.callbackExecutor = callbackExecutor;
 
+            Set<String> aliases = new HashSet<>();
             for (Method method : this.clazz.getDeclaredMethods()) {
-                String methodSignature = OpflowUtil.getMethodSignature(method);
-                OpflowSourceRoutine routine = OpflowUtil.extractMethodAnnotation(method, OpflowSourceRoutine.class);
-                if (routine != null && routine.alias() != null && routine.alias().length() > 0) {
-                    String alias = routine.alias();
-                    if (aliasOfMethod.containsValue(alias)) {
-                        throw new OpflowInstantiationException("Alias[" + alias + "]/methodSignature[" + methodSignature + "] is duplicated");
+                RoutineDescriptor descriptor = new RoutineDescriptor(method);
+                if (descriptor.hedged && descriptor.returnFuture) {
+                    throw new OpflowInstantiationException("Method[" + descriptor.methodSignature + "] returns a CompletableFuture, it cannot be hedged");
+                }
+                if (descriptor.alias != null) {
+                    if (!aliases.add(descriptor.alias)) {
+                        throw new OpflowInstantiationException("Alias[" + descriptor.alias + "]/methodSignature[" + descriptor.methodSignature + "] is duplicated");
                     }
-                    aliasOfMethod.put(methodSignature, alias);
                     if (logTracer.ready(LOG, Level.TRACE)) LOG.trace(logTracer
-                            .put("alias", alias)
-                            .put("methodSignature", methodSignature)
+                            .put("alias", descriptor.alias)
+                            .put("methodSignature", descriptor.methodSignature)
                             .text("link alias to methodSignature")
                             .stringify());
                 }
-                methodIsAsync.put(methodSignature, (routine != null) && routine.isAsync());
+                descriptors.put(method, descriptor);
             }
         }
 
         public Set<String> getMethodNames() {
-            return methodIsAsync.keySet();
+            Set<String> methodNames = new HashSet<>();
+            for (RoutineDescriptor descriptor : descriptors.values()) {
+                methodNames.add(descriptor.methodSignature);
+            }
+            return methodNames;
         }
         
         public Set<Map<String, Object>> getMethodInfos() {
             Set<Map<String, Object>> infos = new HashSet<>();
-            Set<String> methodNames = methodIsAsync.keySet();
-            for (String methodName : methodNames) {
+            for (RoutineDescriptor descriptor : descriptors.values()) {
                 infos.add(OpflowObjectTree.buildMap()
-                    .put("method", methodName)
-                    .put("alias", aliasOfMethod.get(methodName))
-                    .put("async", methodIsAsync.get(methodName))
+                    .put("method", descriptor.methodSignature)
+                    .put("alias", descriptor.alias)
+                    .put("async", descriptor.isAsync)
+                    .put("hedged", descriptor.hedged, descriptor.hedged)
+                    .put("coalesced", descriptor.coalesced, descriptor.coalesced)
+                    .put("cacheTTL", descriptor.cacheTTL, descriptor.cacheTTL > 0)
                     .toMap());
             }
             return infos;
         }
+        
+        private RoutineDescriptor getDescriptor(Method method) {
+            RoutineDescriptor descriptor = descriptorTable.get(method);
+            if (descriptor != null) {
+                return descriptor;
+            }
+            synchronized (descriptors) {
+                descriptor = descriptors.get(method);
+                if (descriptor == null) {
+                    descriptor = new RoutineDescriptor(method);
+                }
+                // the proxy class passes its own Method instances, bind them once
+                Map<Method, RoutineDescriptor> table = new IdentityHashMap<>(descriptorTable);
+                table.put(method, descriptor);
+                descriptorTable = table;
+            }
+            return descriptor;
+        }
 
         public boolean isPublisherActive() {
             return publisherActive;
@@ -1339,6 +1517,10 @@ public class OpflowCommander implements AutoCloseable {
             return amqpMaster != null && !rpcObserver.isCongestive(OpflowConstant.Protocol.AMQP) && isRemoteAMQPWorkerActive();
         }
         
+        public boolean isRemoteAMQPWorkerAvailable(String routineSignature) {
+            return isRemoteAMQPWorkerAvailable() && rpcObserver.allowRequest(OpflowConstant.Protocol.AMQP, routineSignature);
+        }
+        
         public boolean isRemoteHTTPWorkerActive() {
             return this.remoteHTTPWorkerActive;
         }
@@ -1364,6 +1546,118 @@ public class OpflowCommander implements AutoCloseable {
             });
         }
         
+        public List<OpflowRpcBatch.Result> invokeBatch(final List<OpflowRpcBatch.Call> calls, final Long routineTTL) throws Throwable {
+            if (this.restrictor == null) {
+                return _invokeBatch(calls, routineTTL);
+            }
+            return this.restrictor.filter(new OpflowRestrictor.Action<List<OpflowRpcBatch.Result>>() {
+                @Override
+                public List<OpflowRpcBatch.Result> process() throws Throwable {
+                    return _invokeBatch(calls, routineTTL);
+                }
+            });
+        }
+        
+        private List<OpflowRpcBatch.Result> _invokeBatch(List<OpflowRpcBatch.Call> calls, Long routineTTL) throws Throwable {
+            final String routineId = OpflowUUID.getBase64ID();
+            final String routineTimestamp = OpflowDateTime.getCurrentTimeString();
+            final String routineSignature = OpflowConstant.OPFLOW_ROUTINE_BATCH_SIGNATURE;
+            final OpflowLogTracer reqTracer = logTracer.branch(OpflowConstant.REQUEST_TIME, routineTimestamp).branch(OpflowConstant.REQUEST_ID, routineId);
+            
+            final List<OpflowRpcBatch.Result> results = new ArrayList<>(calls.size());
+            final List<RoutineDescriptor> routines = new ArrayList<>(calls.size());
+            for (OpflowRpcBatch.Call call : calls) {
+                if (!call.getMethod().getDeclaringClass().isAssignableFrom(clazz)) {
+                    throw new IllegalArgumentException("Method " + call.getMethod().toString() + " does not belong to " + clazz.getName());
+                }
+                routines.add(getDescriptor(call.getMethod()));
+            }
+            
+            if (reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                    .put("batchSize", calls.size())
+                    .text("Request[${requestId}][${requestTime}][x-commander-batch-begin] - Commander[${commanderId}][${instanceId}] - submits a batch of ${batchSize} calls")
+                    .stringify());
+            
+            if (calls.isEmpty()) {
+                return results;
+            }
+            
+            if (!isRemoteAMQPWorkerAvailable(routineSignature)) {
+                // no AMQP transport: degrade to a sequence of regular invocations
+                if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                        .text("Request[${requestId}][${requestTime}][x-commander-batch-unpacked] - AMQP worker is unavailable, the calls are invoked one by one")
+                        .stringify());
+                for (OpflowRpcBatch.Call call : calls) {
+                    try {
+                        Object output = _invoke(null, call.getMethod(), call.getArgs());
+                        if (output instanceof CompletableFuture) {
+                            try {
+                                output = ((CompletableFuture) output).get();
+                            } catch (ExecutionException exception) {
+                                throw exception.getCause();
+                            }
+                        }
+                        results.add(OpflowRpcBatch.Result.asSuccess(output));
+                    } catch (Throwable error) {
+                        results.add(OpflowRpcBatch.Result.asFailure(error));
+                    }
+                }
+                return results;
+            }
+            
+            List<OpflowRpcBatch.Entry> entries = new ArrayList<>(calls.size());
+            for (int i = 0; i < calls.size(); i++) {
+                RoutineDescriptor descriptor = routines.get(i);
+                entries.add(new OpflowRpcBatch.Entry(descriptor.routineSignature, OpflowJsonTool.toString(calls.get(i).getArgs())));
+            }
+            // the outcome is counted once for the whole batch, so is the entry
+            measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_FLOW_RPC, routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_ENTER);
+            
+            long startTime = System.currentTimeMillis();
+            OpflowRpcAmqpRequest amqpSession = requestAMQP(routineSignature, OpflowRpcBatch.encodeEntries(entries), (new OpflowRpcParameter(routineId, routineTimestamp))
+                    .setRoutineTTL(routineTTL)
+                    .setProgressEnabled(false));
+            OpflowRpcAmqpResult amqpResult = amqpSession.extractResult(false);
+            // batches are only tracked by the circuit breaker, their latency would skew the transport estimates
+            rpcObserver.recordOutcome(OpflowConstant.Protocol.AMQP, routineSignature, null, System.currentTimeMillis() - startTime,
+                    amqpResult.isCompleted() || amqpResult.isFailed());
+            
+            if (amqpResult.isCompleted()) {
+                List<OpflowRpcBatch.Reply> replies = OpflowRpcBatch.decodeReplies(amqpResult.getValueAsString());
+                if (replies.size() != calls.size()) {
+                    measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "failed");
+                    throw new OpflowRequestFailureException("The batch reply contains " + replies.size() + " items, but " + calls.size() + " are expected");
+                }
+                for (int i = 0; i < replies.size(); i++) {
+                    OpflowRpcBatch.Reply reply = replies.get(i);
+                    if (reply.isFailed()) {
+                        results.add(OpflowRpcBatch.Result.asFailure(OpflowUtil.rebuildInvokerException(OpflowJsonTool.toObjectMap(reply.getError()))));
+                    } else {
+                        results.add(OpflowRpcBatch.Result.asSuccess(routines.get(i).parseResult(reply.getValue())));
+                    }
+                }
+                measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "ok");
+                if (reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                        .text("Request[${requestId}][${requestTime}][x-commander-batch-completed] - the batch has completed")
+                        .stringify());
+                return results;
+            }
+            
+            if (amqpResult.isFailed()) {
+                measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "failed");
+                if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                        .text("Request[${requestId}][${requestTime}][x-commander-batch-failed] - the batch has failed")
+                        .stringify());
+                throw OpflowUtil.rebuildInvokerException(OpflowJsonTool.toObjectMap(amqpResult.getErrorAsString()));
+            }
+            
+            if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                    .text("Request[${requestId}][${requestTime}][x-commander-batch-timeout] - the batch is timeout")
+                    .stringify());
+            measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "timeout");
+            throw new OpflowRequestTimeoutException();
+        }
+        
         private Object _invoke(Object proxy, Method method, Object[] args) throws Throwable {
             // generate the routineId
             final String routineId = OpflowUUID.getBase64ID();
@@ -1374,11 +1668,10 @@ public class OpflowCommander implements AutoCloseable {
             // create the logTracer
             final OpflowLogTracer reqTracer = logTracer.branch(OpflowConstant.REQUEST_TIME, routineTimestamp).branch(OpflowConstant.REQUEST_ID, routineId);
 
-            // get the method signature
-            String methodSignature = OpflowUtil.getMethodSignature(method);
-            
-            // convert the method signature to routineSignature
-            String routineSignature = aliasOfMethod.getOrDefault(methodSignature, methodSignature);
+            // get the precomputed descriptor of the method
+            final RoutineDescriptor descriptor = getDescriptor(method);
+            final String methodSignature = descriptor.methodSignature;
+            final String routineSignature = descriptor.routineSignature;
 
             // determine the requestId
             final String requestId;
@@ -1389,7 +1682,7 @@ public class OpflowCommander implements AutoCloseable {
                 requestId = null;
             }
 
-            Boolean isAsync = methodIsAsync.getOrDefault(methodSignature, false);
+            boolean isAsync = descriptor.isAsync;
             if (reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
                     .put("isAsync", isAsync)
                     .put("externalRequestId", requestId)
@@ -1401,20 +1694,21 @@ public class OpflowCommander implements AutoCloseable {
                     .stringify());
 
             if (args == null) args = new Object[0];
-            String body = OpflowJsonTool.toString(args);
+            
+            // the JSON body is only built when a remote transport is selected
+            String body = null;
 
             if (reqTracer.ready(LOG, Level.TRACE)) LOG.trace(reqTracer
                     .put("args", args)
-                    .put("body", body)
                     .text("Request[${requestId}][${requestTime}] - RpcInvocationHandler.invoke() details")
                     .stringify());
 
-            if (this.publisher != null && this.publisherActive && isAsync && void.class.equals(method.getReturnType())) {
+            if (this.publisher != null && this.publisherActive && isAsync && descriptor.returnVoid) {
                 if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
                         .text("Request[${requestId}][${requestTime}][x-commander-publish-method] - RpcInvocationHandler.invoke() dispatch the call to the publisher")
                         .stringify());
                 measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_FLOW_PUBSUB, routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_ENTER);
-                this.publisher.publish(body, OpflowObjectTree.buildMap(false)
+                this.publisher.publish(OpflowJsonTool.toString(args), OpflowObjectTree.buildMap(false)
                         .put(CONST.AMQP_HEADER_ROUTINE_ID, routineId)
                         .put(CONST.AMQP_HEADER_ROUTINE_TIMESTAMP, routineTimestamp)
                         .put(CONST.AMQP_HEADER_ROUTINE_SIGNATURE, routineSignature)
@@ -1431,29 +1725,132 @@ public class OpflowCommander implements AutoCloseable {
                 throw new OpflowWorkerNotFoundException("all of workers are deactivated");
             }
             
+            if (resultCache != null && descriptor.cacheTTL > 0) {
+                body = OpflowJsonTool.toString(args);
+                String cached = resultCache.get(routineSignature, body);
+                if (cached != null) {
+                    if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                            .text("Request[${requestId}][${requestTime}][x-commander-result-cache-hit] - RpcInvocationHandler.invoke() returns the cached output")
+                            .stringify());
+                    Object output = descriptor.parseResult(cached);
+                    return descriptor.returnFuture ? CompletableFuture.completedFuture(output) : output;
+                }
+            }
+            
+            if (descriptor.coalesced) {
+                return _invokeCoalesced(descriptor, method, args, (body != null) ? body : OpflowJsonTool.toString(args), routineId, routineTimestamp, reqTracer);
+            }
+            
+            if (descriptor.returnFuture) {
+                FutureInvocation invocation = new FutureInvocation(descriptor, method, args, body, routineId, routineTimestamp, reqTracer, selectFlags(descriptor.routineSignature));
+                _invokeAsync(invocation, 0, false);
+                return invocation.future;
+            }
+            
+            return _dispatch(descriptor, method, args, body, routineId, routineTimestamp, reqTracer);
+        }
+        
+        private Object _invokeCoalesced(final RoutineDescriptor descriptor, final Method method, final Object[] args, final String body,
+                final String routineId, final String routineTimestamp, final OpflowLogTracer reqTracer) throws Throwable {
+            final String flightKey = descriptor.routineSignature + "#" + body;
+            
+            if (descriptor.returnFuture) {
+                final FutureInvocation invocation = new FutureInvocation(descriptor, method, args, body, routineId, routineTimestamp, reqTracer, selectFlags(descriptor.routineSignature));
+                final CompletableFuture<String> flight = new CompletableFuture<>();
+                final CompletableFuture<String> leader = inflights.putIfAbsent(flightKey, flight);
+                if (leader != null) {
+                    if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                            .text("Request[${requestId}][${requestTime}][x-commander-coalescing-join] - RpcInvocationHandler.invoke() joins an in-flight request")
+                            .stringify());
+                    warnProgressIgnored(invocation.progressSubscriber, reqTracer, "coalesced");
+                    return followFlight(leader, descriptor);
+                }
+                invocation.future.whenComplete(new BiConsumer<Object, Throwable>() {
+                    @Override
+                    public void accept(Object value, Throwable error) {
+                        inflights.remove(flightKey, flight);
+                        if (error != null) {
+                            flight.completeExceptionally(error);
+                        } else {
+                            flight.complete(OpflowJsonTool.toString(value));
+                        }
+                    }
+                });
+                _invokeAsync(invocation, 0, false);
+                return followFuture(invocation.future);
+            }
+            
+            final CompletableFuture<String> flight = new CompletableFuture<>();
+            final CompletableFuture<String> leader = inflights.putIfAbsent(flightKey, flight);
+            if (leader != null) {
+                if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                        .text("Request[${requestId}][${requestTime}][x-commander-coalescing-join] - RpcInvocationHandler.invoke() joins an in-flight request")
+                        .stringify());
+                warnProgressIgnored(PROGRESS_SUBSCRIBER.get(), reqTracer, "coalesced");
+                try {
+                    return descriptor.parseResult(leader.get());
+                } catch (ExecutionException exception) {
+                    throw exception.getCause();
+                }
+            }
+            try {
+                Object output = _dispatch(descriptor, method, args, body, routineId, routineTimestamp, reqTracer);
+                flight.complete(OpflowJsonTool.toString(output));
+                return output;
+            } catch (Throwable error) {
+                flight.completeExceptionally(error);
+                throw error;
+            } finally {
+                inflights.remove(flightKey, flight);
+            }
+        }
+        
+        private Object _dispatch(final RoutineDescriptor descriptor, final Method method, final Object[] args, String body,
+                final String routineId, final String routineTimestamp, final OpflowLogTracer reqTracer) throws Throwable {
+            final String routineSignature = descriptor.routineSignature;
+            
             boolean unfinished = false;
             
-            for (int flag : masterFlags) {
+            int[] flags = selectFlags(routineSignature);
+            for (int flag : flags) {
                 if (flag == FLAG_AMQP) {
-                    if (isRemoteAMQPWorkerAvailable()) {
+                    if (isRemoteAMQPWorkerAvailable(routineSignature)) {
                         unfinished = false;
+                        
+                        if (body == null) body = OpflowJsonTool.toString(args);
+                        
+                        // when HTTP goes first it has been tried already, the hedge would call it twice
+                        if (descriptor.hedged && httpMaster != null && flags[0] == FLAG_AMQP) {
+                            Object output = _invokeHedged(descriptor, body, routineId, routineTimestamp, reqTracer);
+                            if (output != HedgingOutcome.UNFINISHED) {
+                                return output;
+                            }
+                            unfinished = true;
+                            break;
+                        }
 
-                        OpflowRpcAmqpRequest amqpSession = amqpMaster.request(routineSignature, body, (new OpflowRpcParameter(routineId, routineTimestamp))
-                                .setProgressEnabled(false));
+                        long startTime = System.currentTimeMillis();
+                        OpflowRpcAmqpRequest.Subscriber progressSubscriber = PROGRESS_SUBSCRIBER.get();
+                        OpflowRpcAmqpRequest amqpSession = requestAMQP(routineSignature, body, (new OpflowRpcParameter(routineId, routineTimestamp))
+                                .setProgressEnabled(progressSubscriber != null));
+                        if (progressSubscriber != null) {
+                            amqpSession.subscribe(progressSubscriber);
+                        }
                         OpflowRpcAmqpResult amqpResult = amqpSession.extractResult(false);
+                        recordOutcome(OpflowConstant.Protocol.AMQP, routineSignature, null, startTime, amqpResult.isCompleted() || amqpResult.isFailed());
 
                         if (amqpResult.isCompleted()) {
                             if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
-                                    .put("returnType", method.getReturnType().getName())
+                                    .put("returnType", descriptor.returnType.getName())
                                     .put("returnValue", amqpResult.getValueAsString())
                                     .text("Request[${requestId}][${requestTime}][x-commander-remote-amqp-worker-ok] - RpcInvocationHandler.invoke() return the output")
                                     .stringify());
 
                             measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "ok");
 
-                            if (method.getReturnType() == void.class) return null;
+                            storeResult(descriptor, body, amqpResult.getValueAsString());
 
-                            return OpflowJsonTool.toObject(amqpResult.getValueAsString(), method.getReturnType());
+                            return descriptor.parseResult(amqpResult.getValueAsString());
                         }
 
                         if (amqpResult.isFailed()) {
@@ -1472,27 +1869,32 @@ public class OpflowCommander implements AutoCloseable {
                         }
 
                         unfinished = true;
-                        rpcObserver.setCongestive(OpflowConstant.Protocol.AMQP, true);
                     }
                 }
 
                 if (flag == FLAG_HTTP) {
-                    OpflowRpcRoutingInfo routingInfo = rpcObserver.getRoutingInfo(OpflowConstant.Protocol.HTTP);
-                    if (isRemoteHTTPWorkerAvailable() && routingInfo != null) {
+                    OpflowRpcRoutingInfo routingInfo = isRemoteHTTPWorkerAvailable() ? rpcObserver.getRoutingInfo(OpflowConstant.Protocol.HTTP, routineSignature) : null;
+                    if (routingInfo != null) {
                         unfinished = false;
+                        
+                        if (body == null) body = OpflowJsonTool.toString(args);
 
+                        warnProgressIgnored(PROGRESS_SUBSCRIBER.get(), reqTracer, "HTTP");
+                        
+                        long startTime = System.currentTimeMillis();
                         OpflowRpcHttpMaster.Session httpSession = httpMaster.request(routineSignature, body, (new OpflowRpcParameter(routineId, routineTimestamp))
                                 .setProgressEnabled(false), routingInfo);
+                        recordOutcome(OpflowConstant.Protocol.HTTP, routineSignature, routingInfo.getComponentId(), startTime, httpSession.isOk() || httpSession.isFailed());
 
                         if (httpSession.isOk()) {
                             measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_HTTP_WORKER, routineSignature, "ok");
                             if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
-                                    .put("returnType", method.getReturnType().getName())
+                                    .put("returnType", descriptor.returnType.getName())
                                     .put("returnValue", httpSession.getValueAsString())
                                     .text("Request[${requestId}][${requestTime}][x-commander-remote-http-worker-ok] - RpcInvocationHandler.invoke() return the output")
                                     .stringify());
-                            if (method.getReturnType() == void.class) return null;
-                            return OpflowJsonTool.toObject(httpSession.getValueAsString(), method.getReturnType());
+                            storeResult(descriptor, body, httpSession.getValueAsString());
+                            return descriptor.parseResult(httpSession.getValueAsString());
                         }
 
                         if (httpSession.isFailed()) {
@@ -1521,7 +1923,6 @@ public class OpflowCommander implements AutoCloseable {
                         }
 
                         unfinished = true;
-                        rpcObserver.setCongestive(OpflowConstant.Protocol.HTTP, true, routingInfo.getComponentId());
                     }
                 }
             }
@@ -1547,10 +1948,476 @@ public class OpflowCommander implements AutoCloseable {
                 throw new OpflowRequestTimeoutException();
             }
         }
+        
+        private Object _invokeHedged(final RoutineDescriptor descriptor, final String body, final String routineId, final String routineTimestamp,
+                final OpflowLogTracer reqTracer) throws Throwable {
+            final String routineSignature = descriptor.routineSignature;
+            final CompletableFuture<HedgingOutcome> winner = new CompletableFuture<>();
+            // one slot for the AMQP request and one for the (optional) HTTP hedge
+            final AtomicInteger pending = new AtomicInteger(2);
+            final long startTime = System.currentTimeMillis();
+            
+            // only the AMQP request reports the progress, the HTTP hedge cannot
+            OpflowRpcAmqpRequest.Subscriber progressSubscriber = PROGRESS_SUBSCRIBER.get();
+            final OpflowRpcAmqpRequest amqpSession = requestAMQP(routineSignature, body, (new OpflowRpcParameter(routineId, routineTimestamp))
+                    .setProgressEnabled(progressSubscriber != null));
+            if (progressSubscriber != null) {
+                amqpSession.subscribe(progressSubscriber);
+            }
+            amqpSession.toFuture().whenComplete(new BiConsumer<OpflowRpcAmqpResult, Throwable>() {
+                @Override
+                public void accept(OpflowRpcAmqpResult amqpResult, Throwable error) {
+                    if (amqpSession.isCancelled()) {
+                        rpcObserver.releaseRequest(OpflowConstant.Protocol.AMQP, routineSignature, null);
+                        return;
+                    }
+                    recordOutcome(OpflowConstant.Protocol.AMQP, routineSignature, null, startTime, amqpResult != null && (amqpResult.isCompleted() || amqpResult.isFailed()));
+                    if (amqpResult != null && amqpResult.isCompleted()) {
+                        winner.complete(new HedgingOutcome(FLAG_AMQP, false, amqpResult.getValueAsString()));
+                        return;
+                    }
+                    if (amqpResult != null && amqpResult.isFailed()) {
+                        winner.complete(new HedgingOutcome(FLAG_AMQP, true, amqpResult.getErrorAsString()));
+                        return;
+                    }
+                    if (pending.decrementAndGet() == 0) {
+                        winner.complete(HedgingOutcome.UNFINISHED);
+                    }
+                }
+            });
+            
+            HedgingOutcome outcome = null;
+            boolean hedging = false;
+            CompletableFuture<OpflowRpcHttpMaster.Session> httpFuture = null;
+            try {
+                outcome = winner.get(descriptor.hedgingDelay > 0 ? descriptor.hedgingDelay : hedgingDelay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException exception) {
+                final OpflowRpcRoutingInfo routingInfo = isRemoteHTTPWorkerAvailable() ? rpcObserver.getRoutingInfo(OpflowConstant.Protocol.HTTP, routineSignature) : null;
+                if (routingInfo != null) {
+                    hedging = true;
+                    if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                            .text("Request[${requestId}][${requestTime}][x-commander-hedging-request] - RpcInvocationHandler.invoke() sends a hedged request to the HTTP worker")
+                            .stringify());
+                    measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_FLOW_HEDGING, routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_ENTER);
+                    final long hedgingTime = System.currentTimeMillis();
+                    final CompletableFuture<OpflowRpcHttpMaster.Session> hedge = httpMaster.requestAsync(routineSignature, body, (new OpflowRpcParameter(routineId, routineTimestamp))
+                            .setProgressEnabled(false), routingInfo);
+                    httpFuture = hedge;
+                    hedge.whenComplete(new BiConsumer<OpflowRpcHttpMaster.Session, Throwable>() {
+                        @Override
+                        public void accept(OpflowRpcHttpMaster.Session httpSession, Throwable error) {
+                            if (hedge.isCancelled()) {
+                                rpcObserver.releaseRequest(OpflowConstant.Protocol.HTTP, routineSignature, routingInfo.getComponentId());
+                                return;
+                            }
+                            recordOutcome(OpflowConstant.Protocol.HTTP, routineSignature, routingInfo.getComponentId(), hedgingTime, httpSession != null && (httpSession.isOk() || httpSession.isFailed()));
+                            if (httpSession != null && httpSession.isOk()) {
+                                winner.complete(new HedgingOutcome(FLAG_HTTP, false, httpSession.getValueAsString()));
+                                return;
+                            }
+                            if (httpSession != null && httpSession.isFailed()) {
+                                winner.complete(new HedgingOutcome(FLAG_HTTP, true, httpSession.getErrorAsString()));
+                                return;
+                            }
+                            if (pending.decrementAndGet() == 0) {
+                                winner.complete(HedgingOutcome.UNFINISHED);
+                            }
+                        }
+                    });
+                } else {
+                    if (pending.decrementAndGet() == 0) {
+                        winner.complete(HedgingOutcome.UNFINISHED);
+                    }
+                }
+                outcome = winner.get();
+            }
+            
+            if (outcome == HedgingOutcome.UNFINISHED) {
+                if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                        .text("Request[${requestId}][${requestTime}][x-commander-hedging-timeout] - RpcInvocationHandler.invoke() hedged requests are timeout")
+                        .stringify());
+                return HedgingOutcome.UNFINISHED;
+            }
+            
+            String eventName = (outcome.flag == FLAG_AMQP) ? OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER : OpflowConstant.METHOD_INVOCATION_REMOTE_HTTP_WORKER;
+            
+            // the losing request is cancelled, the AMQP one leaves the pending tasks and the timeout wheel at once
+            if (outcome.flag == FLAG_HTTP) {
+                amqpSession.cancel();
+            } else if (httpFuture != null) {
+                httpFuture.cancel(true);
+            }
+            
+            if (hedging && outcome.flag == FLAG_HTTP) {
+                measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_FLOW_HEDGING, routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_OK);
+            }
+            
+            if (outcome.failed) {
+                measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, eventName, routineSignature, "failed");
+                if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                        .put("protocol", eventName)
+                        .text("Request[${requestId}][${requestTime}][x-commander-hedging-failed] - RpcInvocationHandler.invoke() has failed over ${protocol}")
+                        .stringify());
+                throw OpflowUtil.rebuildInvokerException(OpflowJsonTool.toObjectMap(outcome.content));
+            }
+            
+            measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, eventName, routineSignature, "ok");
+            if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                    .put("protocol", eventName)
+                    .put("returnValue", outcome.content)
+                    .text("Request[${requestId}][${requestTime}][x-commander-hedging-ok] - RpcInvocationHandler.invoke() return the output over ${protocol}")
+                    .stringify());
+            storeResult(descriptor, body, outcome.content);
+            return descriptor.parseResult(outcome.content);
+        }
+        
+        private void warnProgressIgnored(OpflowRpcAmqpRequest.Subscriber subscriber, OpflowLogTracer reqTracer, String invocationPath) {
+            if (subscriber != null && reqTracer.ready(LOG, Level.WARN)) LOG.warn(reqTracer
+                    .put("invocationPath", invocationPath)
+                    .text("Request[${requestId}][${requestTime}][x-commander-progress-ignored] - the progress subscriber receives no progress on the ${invocationPath} path")
+                    .stringify());
+        }
+        
+        private int[] selectFlags(String routineSignature) {
+            if (rpcSelector != null && rpcSelector.select(routineSignature) == OpflowConstant.Protocol.HTTP) {
+                return reverseFlags;
+            }
+            return masterFlags;
+        }
+        
+        private OpflowRpcAmqpRequest requestAMQP(String routineSignature, String body, OpflowRpcParameter params) {
+            try {
+                return amqpMaster.request(routineSignature, body, params);
+            } catch (RuntimeException exception) {
+                // the request has been allowed by the circuit breaker but it is never sent
+                rpcObserver.releaseRequest(OpflowConstant.Protocol.AMQP, routineSignature, null);
+                throw exception;
+            }
+        }
+        
+        private void recordOutcome(OpflowConstant.Protocol protocol, String routineSignature, String componentId, long startTime, boolean ok) {
+            long elapsed = System.currentTimeMillis() - startTime;
+            if (rpcSelector != null) {
+                rpcSelector.record(protocol, routineSignature, elapsed, ok);
+            }
+            rpcObserver.recordOutcome(protocol, routineSignature, componentId, elapsed, ok);
+        }
+        
+        private void storeResult(RoutineDescriptor descriptor, String body, String value) {
+            if (resultCache != null && descriptor.cacheTTL > 0) {
+                resultCache.put(descriptor.routineSignature, body, value, descriptor.cacheTTL);
+            }
+        }
+        
+        private CompletableFuture<Object> followFuture(CompletableFuture<Object> source) {
+            final CompletableFuture<Object> target = new CompletableFuture<>();
+            source.whenComplete(new BiConsumer<Object, Throwable>() {
+                @Override
+                public void accept(Object value, Throwable error) {
+                    if (error != null) {
+                        target.completeExceptionally(error);
+                    } else {
+                        target.complete(value);
+                    }
+                }
+            });
+            return target;
+        }
+        
+        private CompletableFuture<Object> followFlight(CompletableFuture<String> flight, final RoutineDescriptor descriptor) {
+            final CompletableFuture<Object> target = new CompletableFuture<>();
+            flight.whenComplete(new BiConsumer<String, Throwable>() {
+                @Override
+                public void accept(String value, Throwable error) {
+                    if (error != null) {
+                        target.completeExceptionally(error);
+                        return;
+                    }
+                    try {
+                        target.complete(descriptor.parseResult(value));
+                    } catch (RuntimeException exception) {
+                        target.completeExceptionally(exception);
+                    }
+                }
+            });
+            return target;
+        }
+        
+        private void _invokeAsync(final FutureInvocation invocation, final int position, final boolean unfinished) {
+            final String routineSignature = invocation.routineSignature;
+            final OpflowLogTracer reqTracer = invocation.reqTracer;
+            
+            for (int i = position; i < invocation.flags.length; i++) {
+                final int next = i + 1;
+                final long startTime = System.currentTimeMillis();
+                
+                if (invocation.flags[i] == FLAG_AMQP && isRemoteAMQPWorkerAvailable(routineSignature)) {
+                    OpflowRpcAmqpRequest amqpSession = requestAMQP(routineSignature, invocation.getBody(), (new OpflowRpcParameter(invocation.routineId, invocation.routineTimestamp))
+                            .setProgressEnabled(invocation.progressSubscriber != null));
+                    if (invocation.progressSubscriber != null) {
+                        amqpSession.subscribe(invocation.progressSubscriber);
+                    }
+                    // the fallbacks run on the callback executor instead of the AMQP consumer or the timeout wheel thread
+                    amqpSession.toFuture().whenCompleteAsync(new BiConsumer<OpflowRpcAmqpResult, Throwable>() {
+                        @Override
+                        public void accept(OpflowRpcAmqpResult amqpResult, Throwable error) {
+                            try {
+                                if (error != null) {
+                                    invocation.future.completeExceptionally(error);
+                                    return;
+                                }
+                                recordOutcome(OpflowConstant.Protocol.AMQP, routineSignature, null, startTime, amqpResult.isCompleted() || amqpResult.isFailed());
+                                if (amqpResult.isCompleted()) {
+                                    if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                                            .put("returnValue", amqpResult.getValueAsString())
+                                            .text("Request[${requestId}][${requestTime}][x-commander-remote-amqp-worker-ok] - RpcInvocationHandler.invoke() completes the future")
+                                            .stringify());
+                                    measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "ok");
+                                    storeResult(invocation.descriptor, invocation.getBody(), amqpResult.getValueAsString());
+                                    invocation.complete(amqpResult.getValueAsString());
+                                    return;
+                                }
+                                if (amqpResult.isFailed()) {
+                                    measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "failed");
+                                    if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                                            .text("Request[${requestId}][${requestTime}][x-commander-remote-amqp-worker-failed] - RpcInvocationHandler.invoke() has failed")
+                                            .stringify());
+                                    Map<String, Object> errorMap = OpflowJsonTool.toObjectMap(amqpResult.getErrorAsString());
+                                    invocation.future.completeExceptionally(OpflowUtil.rebuildInvokerException(errorMap));
+                                    return;
+                                }
+                                if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                                        .text("Request[${requestId}][${requestTime}][x-commander-remote-amqp-worker-timeout] - RpcInvocationHandler.invoke() is timeout")
+                                        .stringify());
+                                _invokeAsync(invocation, next, true);
+                            } catch (Throwable exception) {
+                                invocation.future.completeExceptionally(exception);
+                            }
+                        }
+                    }, callbackExecutor);
+                    return;
+                }
+                
+                if (invocation.flags[i] == FLAG_HTTP) {
+                    final OpflowRpcRoutingInfo routingInfo = isRemoteHTTPWorkerAvailable() ? rpcObserver.getRoutingInfo(OpflowConstant.Protocol.HTTP, routineSignature) : null;
+                    if (routingInfo != null) {
+                        warnProgressIgnored(invocation.progressSubscriber, reqTracer, "HTTP");
+                        httpMaster.requestAsync(routineSignature, invocation.getBody(), (new OpflowRpcParameter(invocation.routineId, invocation.routineTimestamp))
+                                .setProgressEnabled(false), routingInfo).whenCompleteAsync(new BiConsumer<OpflowRpcHttpMaster.Session, Throwable>() {
+                            @Override
+                            public void accept(OpflowRpcHttpMaster.Session httpSession, Throwable error) {
+                                try {
+                                    if (error != null) {
+                                        invocation.future.completeExceptionally(error);
+                                        return;
+                                    }
+                                    recordOutcome(OpflowConstant.Protocol.HTTP, routineSignature, routingInfo.getComponentId(), startTime, httpSession.isOk() || httpSession.isFailed());
+                                    if (httpSession.isOk()) {
+                                        measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_HTTP_WORKER, routineSignature, "ok");
+                                        if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                                                .put("returnValue", httpSession.getValueAsString())
+                                                .text("Request[${requestId}][${requestTime}][x-commander-remote-http-worker-ok] - RpcInvocationHandler.invoke() completes the future")
+                                                .stringify());
+                                        storeResult(invocation.descriptor, invocation.getBody(), httpSession.getValueAsString());
+                                        invocation.complete(httpSession.getValueAsString());
+                                        return;
+                                    }
+                                    if (httpSession.isFailed()) {
+                                        measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_HTTP_WORKER, routineSignature, "failed");
+                                        if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                                                .text("Request[${requestId}][${requestTime}][x-commander-remote-http-worker-failed] - RpcInvocationHandler.invoke() has failed")
+                                                .stringify());
+                                        Map<String, Object> errorMap = OpflowJsonTool.toObjectMap(httpSession.getErrorAsString());
+                                        invocation.future.completeExceptionally(OpflowUtil.rebuildInvokerException(errorMap));
+                                        return;
+                                    }
+                                    if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                                            .text("Request[${requestId}][${requestTime}][x-commander-remote-http-worker-timeout] - RpcInvocationHandler.invoke() is timeout or cracked")
+                                            .stringify());
+                                    _invokeAsync(invocation, next, true);
+                                } catch (Throwable exception) {
+                                    invocation.future.completeExceptionally(exception);
+                                }
+                            }
+                        }, callbackExecutor);
+                        return;
+                    }
+                }
+            }
+            
+            if (isNativeWorkerAvailable()) {
+                if (unfinished) {
+                    measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_NATIVE_WORKER, routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_RESCUE);
+                } else {
+                    measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_NATIVE_WORKER, routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_NORMAL);
+                }
+                // the native worker may block, so it never runs on the caller or a transport thread
+                final Object _nativeWorker = this.nativeWorker;
+                callbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Object output = invocation.method.invoke(_nativeWorker, invocation.args);
+                            if (output instanceof CompletableFuture) {
+                                ((CompletableFuture<Object>) output).whenComplete(new BiConsumer<Object, Throwable>() {
+                                    @Override
+                                    public void accept(Object value, Throwable error) {
+                                        if (error != null) {
+                                            invocation.future.completeExceptionally(error);
+                                        } else {
+                                            invocation.future.complete(value);
+                                        }
+                                    }
+                                });
+                            } else {
+                                invocation.future.complete(output);
+                            }
+                        } catch (InvocationTargetException exception) {
+                            invocation.future.completeExceptionally(exception.getCause() != null ? exception.getCause() : exception);
+                        } catch (Throwable exception) {
+                            invocation.future.completeExceptionally(exception);
+                        }
+                    }
+                });
+            } else {
+                if (reqTracer.ready(LOG, Level.DEBUG)) LOG.trace(reqTracer
+                        .text("Request[${requestId}][${requestTime}][x-commander-remote-all-workers-timeout] - RpcInvocationHandler.invoke() is timeout")
+                        .stringify());
+                measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "timeout");
+                invocation.future.completeExceptionally(new OpflowRequestTimeoutException());
+            }
+        }
+    }
+
+    private static class HedgingOutcome {
+        private static final HedgingOutcome UNFINISHED = new HedgingOutcome(0, false, null);
+        
+        private final int flag;
+        private final boolean failed;
+        private final String content;
+        
+        HedgingOutcome(int flag, boolean failed, String content) {
+            this.flag = flag;
+            this.failed = failed;
+            this.content = content;
+        }
+    }
+    
+    private static class RoutineDescriptor {
+        private final String methodSignature;
+        private final String routineSignature;
+        private final String alias;
+        private final boolean isAsync;
+        private final boolean hedged;
+        private final long hedgingDelay;
+        private final boolean coalesced;
+        private final long cacheTTL;
+        private final Class<?> returnType;
+        private final boolean returnVoid;
+        private final boolean returnFuture;
+        private final Type valueType;
+        
+        RoutineDescriptor(Method method) {
+            this.methodSignature = OpflowUtil.getMethodSignature(method);
+            OpflowSourceRoutine routine = OpflowUtil.extractMethodAnnotation(method, OpflowSourceRoutine.class);
+            if (routine != null && routine.alias() != null && routine.alias().length() > 0) {
+                this.alias = routine.alias();
+            } else {
+                this.alias = null;
+            }
+            this.routineSignature = (this.alias != null) ? this.alias : this.methodSignature;
+            this.isAsync = (routine != null) && routine.isAsync();
+            this.hedged = (routine != null) && routine.hedged();
+            this.hedgingDelay = (routine != null) ? routine.hedgingDelay() : 0;
+            this.coalesced = (routine != null) && routine.coalesced();
+            this.cacheTTL = (routine != null && !void.class.equals(method.getReturnType())) ? routine.cacheTTL() : 0;
+            this.returnType = method.getReturnType();
+            this.returnVoid = void.class.equals(this.returnType);
+            this.returnFuture = CompletableFuture.class.equals(this.returnType);
+            if (this.returnFuture) {
+                Type genericType = method.getGenericReturnType();
+                if (genericType instanceof ParameterizedType) {
+                    this.valueType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                } else {
+                    this.valueType = Object.class;
+                }
+            } else {
+                this.valueType = this.returnType;
+            }
+        }
+        
+        Object parseResult(String value) {
+            if (returnVoid || valueType == Void.class || value == null) {
+                return null;
+            }
+            return OpflowJsonTool.toObject(value, valueType);
+        }
+    }
+    
+    private static class FutureInvocation {
+        private final RoutineDescriptor descriptor;
+        private final Method method;
+        private final Object[] args;
+        private String body;
+        private final String routineId;
+        private final String routineTimestamp;
+        private final String routineSignature;
+        private final OpflowLogTracer reqTracer;
+        private final int[] flags;
+        private final OpflowRpcAmqpRequest.Subscriber progressSubscriber = PROGRESS_SUBSCRIBER.get();
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        
+        FutureInvocation(RoutineDescriptor descriptor, Method method, Object[] args, String body, String routineId, String routineTimestamp, OpflowLogTracer reqTracer, int[] flags) {
+            this.descriptor = descriptor;
+            this.method = method;
+            this.args = args;
+            this.body = body;
+            this.routineId = routineId;
+            this.routineTimestamp = routineTimestamp;
+            this.routineSignature = descriptor.routineSignature;
+            this.reqTracer = reqTracer;
+            this.flags = flags;
+        }
+        
+        String getBody() {
+            if (body == null) {
+                body = OpflowJsonTool.toString(args);
+            }
+            return body;
+        }
+        
+        void complete(String value) {
+            try {
+                future.complete(descriptor.parseResult(value));
+            } catch (RuntimeException exception) {
+                future.completeExceptionally(exception);
+            }
+        }
     }
 
     private final Map<String, RpcInvocationHandler> handlers = new LinkedHashMap<>();
 
+    private static ExecutorService createCallbackExecutor(int poolSize, int queueSize) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "opflow-commander-callback-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+                // a full queue (or a closed commander) pushes the callback back to the completing thread
+                runnable.run();
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     private <T> RpcInvocationHandler getInvocationHandler(Class<T> clazz, T bean) {
         validateType(clazz);
         String clazzName = clazz.getName();
@@ -1564,7 +2431,7 @@ public class OpflowCommander implements AutoCloseable {
                     .text("getInvocationHandler() InvocationHandler not found, create new one")
                     .stringify());
             handlers.put(clazzName, new RpcInvocationHandler(logTracer, measurer, restrictor, reqExtractor, rpcObserver, 
-                    amqpMaster, httpMaster, publisher, clazz, bean, nativeWorkerEnabled));
+                    amqpMaster, httpMaster, publisher, resultCache, rpcSelector, clazz, bean, nativeWorkerEnabled, hedgingDelay, callbackExecutor));
         } else {
             if (strictMode) {
                 throw new OpflowRpcRegistrationException("Class [" + clazzName + "] has already registered");
@@ -1590,7 +2457,7 @@ public class OpflowCommander implements AutoCloseable {
         }
         Method[] methods = type.getDeclaredMethods();
         for(Method method:methods) {
-            if (OpflowUtil.isGenericDeclaration(method.toGenericString())) {
+            if (isGenericMethod(method)) {
                 ok = false;
                 if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
                         .put("methodString", method.toGenericString())
@@ -1604,6 +2471,14 @@ public class OpflowCommander implements AutoCloseable {
         return ok;
     }
 
+    private static boolean isGenericMethod(Method method) {
+        String methodString = method.toGenericString();
+        if (CompletableFuture.class.equals(method.getReturnType())) {
+            methodString = methodString.replace(method.getGenericReturnType().getTypeName(), method.getReturnType().getName());
+        }
+        return OpflowUtil.isGenericDeclaration(methodString);
+    }
+
     public <T> T registerType(Class<T> type) {
         return registerType(type, null);
     }
@@ -1641,6 +2516,38 @@ public class OpflowCommander implements AutoCloseable {
         removeInvocationHandler(type);
     }
 
+    public <T> List<OpflowRpcBatch.Result> invokeBatch(Class<T> type, List<OpflowRpcBatch.Call> calls) throws Throwable {
+        return invokeBatch(type, calls, null);
+    }
+
+    public <T> List<OpflowRpcBatch.Result> invokeBatch(Class<T> type, List<OpflowRpcBatch.Call> calls, Long routineTTL) throws Throwable {
+        if (type == null) {
+            throw new OpflowInstantiationException("The [type] parameter must not be null");
+        }
+        RpcInvocationHandler handler = handlers.get(type.getName());
+        if (handler == null) {
+            throw new OpflowInstantiationException("Class [" + type.getName() + "] has not been registered");
+        }
+        if (calls == null) {
+            calls = new ArrayList<>();
+        }
+        return handler.invokeBatch(calls, routineTTL);
+    }
+
+    /**
+     * Streams the progress messages of the proxy method calls which the
+     * current thread sends through AMQP to the subscriber (the routines emit
+     * them with OpflowRpcAmqpResponse.current()); null removes it. The calls
+     * served over HTTP, or joining a coalesced call, only log a warning.
+     */
+    public static void setProgressSubscriber(OpflowRpcAmqpRequest.Subscriber subscriber) {
+        if (subscriber == null) {
+            PROGRESS_SUBSCRIBER.remove();
+        } else {
+            PROGRESS_SUBSCRIBER.set(subscriber);
+        }
+    }
+    
     public Map<String, Object> getRpcInvocationCounter() {
         return measurer.getRpcInvocationCounter(OpflowConstant.COMP_COMMANDER).toMap();
     }
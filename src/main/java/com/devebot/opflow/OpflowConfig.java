@@ -82,6 +82,7 @@ public class OpflowConfig {
                 OpflowConstant.OPFLOW_RESPONSE_QUEUE_EXCLUSIVE,
                 OpflowConstant.OPFLOW_RESPONSE_QUEUE_AUTO_DELETE,
                 OpflowConstant.OPFLOW_RESPONSE_PREFETCH_COUNT,
+                OpflowConstant.OPFLOW_RESPONSE_DIRECT_REPLY_TO,
             });
 
             transformParameters(params);
@@ -121,6 +122,7 @@ public class OpflowConfig {
                 OpflowConstant.OPFLOW_INCOMING_QUEUE_EXCLUSIVE,
                 OpflowConstant.OPFLOW_INCOMING_QUEUE_AUTO_DELETE,
                 OpflowConstant.OPFLOW_INCOMING_PREFETCH_COUNT,
+                OpflowConstant.OPFLOW_INCOMING_CONCURRENCY,
                 OpflowConstant.OPFLOW_OUTGOING_EXCHANGE_NAME,
                 OpflowConstant.OPFLOW_OUTGOING_EXCHANGE_TYPE,
                 OpflowConstant.OPFLOW_OUTGOING_EXCHANGE_DURABLE,
@@ -172,7 +174,13 @@ public class OpflowConfig {
                 OpflowConstant.OPFLOW_PUBSUB_QUEUE_NAME,
                 OpflowConstant.OPFLOW_PUBSUB_CONSUMER_LIMIT,
                 OpflowConstant.OPFLOW_PUBSUB_PREFETCH_COUNT,
+                OpflowConstant.OPFLOW_PUBSUB_CONCURRENCY,
                 OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_LIMIT,
+                OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_DELAY,
+                OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_MAX_DELAY,
+                OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_JITTER,
+                OpflowConstant.OPFLOW_PUBSUB_PARTITION_LANES,
+                OpflowConstant.OPFLOW_PUBSUB_PARTITION_KEY,
                 OpflowConstant.OPFLOW_PUBSUB_TRASH_NAME,
             });
 
@@ -278,15 +286,22 @@ public class OpflowConfig {
                             OpflowConstant.OPFLOW_RESPONSE_QUEUE_EXCLUSIVE,
                             OpflowConstant.OPFLOW_RESPONSE_QUEUE_AUTO_DELETE,
                             OpflowConstant.OPFLOW_RESPONSE_PREFETCH_COUNT,
+                            OpflowConstant.OPFLOW_RESPONSE_DIRECT_REPLY_TO,
                             OpflowConstant.OPFLOW_RPC_MONITOR_ID,
                             OpflowConstant.OPFLOW_RPC_MONITOR_ENABLED,
                             OpflowConstant.OPFLOW_RPC_MONITOR_INTERVAL,
                             OpflowConstant.OPFLOW_RPC_MONITOR_TIMEOUT,
+                            OpflowConstant.OPFLOW_RPC_MONITOR_TICK,
                         });
                         break;
                     case OpflowConstant.COMP_RPC_HTTP_MASTER:
                         OpflowUtil.copyParameters(componentCfg, componentNode, new String[] {
                             OpflowConstant.OPFLOW_COMMON_ENABLED,
+                            OpflowConstant.OPFLOW_COMMON_H2C_ENABLED,
+                            OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS,
+                            OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS_PER_HOST,
+                            OpflowConstant.HTTP_MASTER_PARAM_MAX_IDLE_CONNECTIONS,
+                            OpflowConstant.HTTP_MASTER_PARAM_KEEP_ALIVE_DURATION,
                         });
                         break;
                     case OpflowConstant.COMP_RPC_OBSERVER:
@@ -296,6 +311,14 @@ public class OpflowConfig {
                             OpflowConstant.OPFLOW_COUNSELOR_THREAD_POOL_SIZE,
                             OpflowConstant.OPFLOW_COUNSELOR_TRIMMING_ENABLED,
                             OpflowConstant.OPFLOW_COUNSELOR_TRIMMING_TIME_DELAY,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_ENABLED,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_WINDOW_SIZE,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_MINIMUM_CALLS,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_FAILURE_RATE,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_DURATION,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_RATE,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_OPEN_DURATION,
+                            OpflowConstant.OPFLOW_COUNSELOR_BREAKER_HALF_OPEN_PROBES,
                         });
                         break;
                     case OpflowConstant.COMP_GARBAGE_COLLECTOR:
@@ -310,6 +333,26 @@ public class OpflowConfig {
                             OpflowConstant.OPFLOW_COMMON_INTERVAL
                         });
                         break;
+                    case OpflowConstant.COMP_RESULT_CACHE:
+                        OpflowUtil.copyParameters(componentCfg, componentNode, new String[] {
+                            OpflowConstant.OPFLOW_COMMON_ENABLED,
+                            OpflowConstant.OPFLOW_RESULT_CACHE_MAX_SIZE
+                        });
+                        break;
+                    case OpflowConstant.COMP_QUEUE_SAMPLER:
+                        OpflowUtil.copyParameters(componentCfg, componentNode, new String[] {
+                            OpflowConstant.OPFLOW_COMMON_ENABLED,
+                            OpflowConstant.OPFLOW_COMMON_INTERVAL
+                        });
+                        break;
+                    case OpflowConstant.COMP_RPC_SELECTOR:
+                        OpflowUtil.copyParameters(componentCfg, componentNode, new String[] {
+                            OpflowConstant.OPFLOW_COMMON_ENABLED,
+                            OpflowConstant.OPFLOW_RPC_SELECTOR_SMOOTHING_FACTOR,
+                            OpflowConstant.OPFLOW_RPC_SELECTOR_EXPLORATION_RATE,
+                            OpflowConstant.OPFLOW_RPC_SELECTOR_MIN_SAMPLES
+                        });
+                        break;
                     case OpflowConstant.COMP_SPEED_METER:
                         OpflowUtil.copyParameters(componentCfg, componentNode, new String[] {
                             OpflowConstant.OPFLOW_COMMON_ACTIVE,
@@ -401,6 +444,7 @@ public class OpflowConfig {
                             OpflowConstant.OPFLOW_INCOMING_QUEUE_EXCLUSIVE,
                             OpflowConstant.OPFLOW_INCOMING_QUEUE_AUTO_DELETE,
                             OpflowConstant.OPFLOW_INCOMING_PREFETCH_COUNT,
+                            OpflowConstant.OPFLOW_INCOMING_CONCURRENCY,
                             OpflowConstant.OPFLOW_OUTGOING_EXCHANGE_NAME,
                             OpflowConstant.OPFLOW_OUTGOING_EXCHANGE_TYPE,
                             OpflowConstant.OPFLOW_OUTGOING_EXCHANGE_DURABLE,
@@ -413,6 +457,7 @@ public class OpflowConfig {
                             OpflowConstant.OPFLOW_COMMON_HOST,
                             OpflowConstant.OPFLOW_COMMON_HOSTNAME,
                             OpflowConstant.OPFLOW_COMMON_PORTS,
+                            OpflowConstant.OPFLOW_COMMON_H2C_ENABLED,
                         });
                         break;
                     case OpflowConstant.COMP_SUBSCRIBER:
@@ -506,6 +551,7 @@ public class OpflowConfig {
         OpflowConstant.OPFLOW_COMMON_ENABLED,
         OpflowConstant.OPFLOW_COMMON_VERBOSE,
         OpflowConstant.OPFLOW_COMMON_STRICT,
+        OpflowConstant.OPFLOW_COMMON_H2C_ENABLED,
         OpflowConstant.OPFLOW_COUNSELOR_THREAD_POOL_ENABLED,
         OpflowConstant.OPFLOW_COUNSELOR_TRIMMING_ENABLED,
         OpflowConstant.OPFLOW_RPC_MONITOR_ENABLED,
@@ -523,6 +569,7 @@ public class OpflowConfig {
         OpflowConstant.OPFLOW_RESPONSE_QUEUE_AUTO_DELETE,
         OpflowConstant.OPFLOW_RESPONSE_QUEUE_DURABLE,
         OpflowConstant.OPFLOW_RESPONSE_QUEUE_EXCLUSIVE,
+        OpflowConstant.OPFLOW_RESPONSE_DIRECT_REPLY_TO,
         
         OpflowConstant.OPFLOW_INCOMING_QUEUE_AUTO_DELETE,
         OpflowConstant.OPFLOW_INCOMING_QUEUE_DURABLE,
@@ -557,8 +604,15 @@ public class OpflowConfig {
         OpflowConstant.OPFLOW_CONSUMING_PREFETCH_COUNT,
         OpflowConstant.OPFLOW_INCOMING_PREFETCH_COUNT,
         OpflowConstant.OPFLOW_RESPONSE_PREFETCH_COUNT,
+        OpflowConstant.OPFLOW_CONSUMING_CONCURRENCY,
+        OpflowConstant.OPFLOW_CONSUMING_ACK_BATCH_SIZE,
         OpflowConstant.OPFLOW_PUBSUB_CONSUMER_LIMIT,
         OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_LIMIT,
+        OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_JITTER,
+        OpflowConstant.OPFLOW_PUBSUB_PARTITION_LANES,
+        OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS,
+        OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS_PER_HOST,
+        OpflowConstant.HTTP_MASTER_PARAM_MAX_IDLE_CONNECTIONS,
         OpflowConstant.AMQP_CONARG_SHARED_THREAD_POOL_SIZE
     });
     
@@ -571,7 +625,12 @@ public class OpflowConfig {
         OpflowConstant.OPFLOW_COMMON_INTERVAL,
         OpflowConstant.OPFLOW_COUNSELOR_TRIMMING_TIME_DELAY,
         OpflowConstant.OPFLOW_RPC_MONITOR_TIMEOUT,
+        OpflowConstant.OPFLOW_RPC_MONITOR_TICK,
         OpflowConstant.OPFLOW_RESTRICT_PAUSE_TIMEOUT,
+        OpflowConstant.OPFLOW_CONSUMING_ACK_BATCH_TIMEOUT,
+        OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_DELAY,
+        OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_MAX_DELAY,
+        OpflowConstant.HTTP_MASTER_PARAM_KEEP_ALIVE_DURATION,
         OpflowConstant.OPFLOW_RESTRICT_SEMAPHORE_TIMEOUT,
         OpflowConstant.OPFLOW_DISCOVERY_CLIENT_CHECK_INTERVAL,
         OpflowConstant.OPFLOW_DISCOVERY_CLIENT_CHECK_TTL,
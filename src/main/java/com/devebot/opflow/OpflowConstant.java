@@ -27,6 +27,7 @@ public class OpflowConstant {
     public final static String ROUTINE_TIMESTAMP = "routineTimestamp";
     public final static String ROUTINE_SIGNATURE = "routineSignature";
     public final static String ROUTINE_SCOPE = "routineScope";
+    public final static String ROUTINE_DEADLINE = "routineDeadline";
 
     //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ COMMON
     
@@ -66,6 +67,9 @@ public class OpflowConstant {
     public final static String COMP_REST_SERVER = "restServer";
     public final static String COMP_SERVICE_LOCATOR = "serviceLocator";
     public final static String COMP_GARBAGE_COLLECTOR = "garbageCollector";
+    public final static String COMP_RESULT_CACHE = "resultCache";
+    public final static String COMP_RPC_SELECTOR = "rpcSelector";
+    public final static String COMP_QUEUE_SAMPLER = "queueSampler";
 
     public final static String INFO_SECTION_RUNTIME = "miscellaneous";
     public final static String INFO_SECTION_SOURCE_CODE = "source-code-info";
@@ -74,6 +78,9 @@ public class OpflowConstant {
     public final static String METHOD_INVOCATION_FLOW_NATIVE = "native";
     public final static String METHOD_INVOCATION_FLOW_PUBSUB = "pubsub";
     public final static String METHOD_INVOCATION_FLOW_RPC = "rpc";
+    public final static String METHOD_INVOCATION_FLOW_HEDGING = "hedging";
+    public final static String METHOD_INVOCATION_FLOW_CACHE = "cache";
+    public final static String METHOD_INVOCATION_FLOW_DEADLINE = "deadline";
     public final static String METHOD_INVOCATION_REMOTE_HTTP_WORKER = "remote_http";
     public final static String METHOD_INVOCATION_REMOTE_AMQP_WORKER = "remote_amqp";
     public final static String METHOD_INVOCATION_NATIVE_WORKER = "backup_method";
@@ -89,8 +96,15 @@ public class OpflowConstant {
     public final static String METHOD_INVOCATION_STATUS_ENTER = "begin";
     public final static String METHOD_INVOCATION_STATUS_RESCUE = "rescue";
     public final static String METHOD_INVOCATION_STATUS_NORMAL = "retain";
+    public final static String METHOD_INVOCATION_STATUS_HIT = "hit";
+    public final static String METHOD_INVOCATION_STATUS_MISS = "miss";
+    public final static String METHOD_INVOCATION_STATUS_EVICTED = "evicted";
+    public final static String METHOD_INVOCATION_STATUS_EXPIRED = "expired";
 
     public final static String PARAM_NATIVE_WORKER_ENABLED = "nativeWorkerEnabled";
+    public final static String PARAM_HEDGING_DELAY = "hedgingDelay";
+    public final static String PARAM_CALLBACK_POOL_SIZE = "callbackPoolSize";
+    public final static String PARAM_CALLBACK_QUEUE_SIZE = "callbackQueueSize";
 
     // engine - rabbitMQ
     public final static String OPFLOW_COMMON_PROTO_VERSION = "protocolVersion";
@@ -115,6 +129,7 @@ public class OpflowConstant {
     public final static String OPFLOW_COMMON_CREDENTIALS = "credentials";
     public final static String OPFLOW_COMMON_CONGESTIVE = "congestive";
     public final static String OPFLOW_COMMON_PROTOCOL = "protocol";
+    public final static String OPFLOW_COMMON_H2C_ENABLED = "h2cEnabled";
     public final static String OPFLOW_COMMON_PID = "pid";
     public final static String OPFLOW_COMMON_THREAD_COUNT = "threadCount";
     public final static String OPFLOW_COMMON_OS_INFO = "OS";
@@ -142,11 +157,26 @@ public class OpflowConstant {
     public final static String OPFLOW_COUNSELOR_TRIMMING_ENABLED = "trimmingEnabled";
     public final static String OPFLOW_COUNSELOR_TRIMMING_TIME_DELAY = "trimmingTimeDelay";
     public final static String OPFLOW_COUNSELOR_KEEP_ALIVE_TIMEOUT = "keepAliveTimeout";
+    public final static String OPFLOW_COUNSELOR_BREAKER_ENABLED = "breakerEnabled";
+    public final static String OPFLOW_COUNSELOR_BREAKER_WINDOW_SIZE = "breakerWindowSize";
+    public final static String OPFLOW_COUNSELOR_BREAKER_MINIMUM_CALLS = "breakerMinimumCalls";
+    public final static String OPFLOW_COUNSELOR_BREAKER_FAILURE_RATE = "breakerFailureRate";
+    public final static String OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_DURATION = "breakerSlowCallDuration";
+    public final static String OPFLOW_COUNSELOR_BREAKER_SLOW_CALL_RATE = "breakerSlowCallRate";
+    public final static String OPFLOW_COUNSELOR_BREAKER_OPEN_DURATION = "breakerOpenDuration";
+    public final static String OPFLOW_COUNSELOR_BREAKER_HALF_OPEN_PROBES = "breakerHalfOpenProbes";
 
     public final static String OPFLOW_RPC_MONITOR_ID = "monitorId";
     public final static String OPFLOW_RPC_MONITOR_ENABLED = "monitorEnabled";
     public final static String OPFLOW_RPC_MONITOR_INTERVAL = "monitorInterval";
     public final static String OPFLOW_RPC_MONITOR_TIMEOUT = "monitorTimeout";
+    public final static String OPFLOW_RPC_MONITOR_TICK = "monitorTick";
+
+    public final static String OPFLOW_RESULT_CACHE_MAX_SIZE = "maxSize";
+
+    public final static String OPFLOW_RPC_SELECTOR_SMOOTHING_FACTOR = "smoothingFactor";
+    public final static String OPFLOW_RPC_SELECTOR_EXPLORATION_RATE = "explorationRate";
+    public final static String OPFLOW_RPC_SELECTOR_MIN_SAMPLES = "minSamples";
 
     public final static String OPFLOW_RESTRICT_PAUSE_ENABLED = "pauseEnabled";
     public final static String OPFLOW_RESTRICT_PAUSE_TIMEOUT = "pauseTimeout";
@@ -164,6 +194,13 @@ public class OpflowConstant {
     public final static String OPFLOW_PRODUCING_EXCHANGE_TYPE = "exchangeType";
     public final static String OPFLOW_PRODUCING_EXCHANGE_DURABLE = "exchangeDurable";
     public final static String OPFLOW_PRODUCING_ROUTING_KEY = "routingKey";
+    public final static String OPFLOW_PRODUCING_CHANNEL_TOTAL = "producingChannelTotal";
+    public final static String OPFLOW_PRODUCING_CONNECTION_TOTAL = "producingConnectionTotal";
+    public final static String OPFLOW_PRODUCING_CHANNEL_SELECTION = "producingChannelSelection";
+    public final static String OPFLOW_PRODUCING_CHANNEL_POOL = "producingChannelPool";
+    public final static String OPFLOW_PRODUCING_CONFIRM_ENABLED = "producingConfirmEnabled";
+    public final static String OPFLOW_PRODUCING_SELECTION_ROUND_ROBIN = "roundRobin";
+    public final static String OPFLOW_PRODUCING_SELECTION_THREAD_AFFINITY = "threadAffinity";
 
     public final static String OPFLOW_CONSUMING_QUEUE_NAME = "queueName";
     public final static String OPFLOW_CONSUMING_QUEUE_AUTO_DELETE = "autoDelete";
@@ -176,6 +213,9 @@ public class OpflowConstant {
     public final static String OPFLOW_CONSUMING_REPLY_TO = "replyTo";
     public final static String OPFLOW_CONSUMING_CONSUMER_ID = "consumerId";
     public final static String OPFLOW_CONSUMING_CONSUMER_LIMIT = "consumerLimit";
+    public final static String OPFLOW_CONSUMING_CONCURRENCY = "consumerConcurrency";
+    public final static String OPFLOW_CONSUMING_ACK_BATCH_SIZE = "ackBatchSize";
+    public final static String OPFLOW_CONSUMING_ACK_BATCH_TIMEOUT = "ackBatchTimeout";
 
     // publisher - subscriber
 
@@ -190,11 +230,17 @@ public class OpflowConstant {
     public final static String OPFLOW_PUBSUB_QUEUE_EXCLUSIVE = "queueExclusive";
     public final static String OPFLOW_PUBSUB_QUEUE_AUTO_DELETE = "queueAutoDelete";
     public final static String OPFLOW_PUBSUB_PREFETCH_COUNT = "prefetchCount";
+    public final static String OPFLOW_PUBSUB_CONCURRENCY = "consumerConcurrency";
     public final static String OPFLOW_PUBSUB_AUTO_BINDING = "binding";
     public final static String OPFLOW_PUBSUB_REPLY_TO = "replyTo";
     public final static String OPFLOW_PUBSUB_CONSUMER_ID = "consumerId";
     public final static String OPFLOW_PUBSUB_CONSUMER_LIMIT = "subscriberLimit";
     public final static String OPFLOW_PUBSUB_REDELIVERED_LIMIT = "redeliveredLimit";
+    public final static String OPFLOW_PUBSUB_REDELIVERED_DELAY = "redeliveredDelay";
+    public final static String OPFLOW_PUBSUB_REDELIVERED_MAX_DELAY = "redeliveredMaxDelay";
+    public final static String OPFLOW_PUBSUB_REDELIVERED_JITTER = "redeliveredJitter";
+    public final static String OPFLOW_PUBSUB_PARTITION_LANES = "partitionLanes";
+    public final static String OPFLOW_PUBSUB_PARTITION_KEY = "partitionKey";
     public final static String OPFLOW_PUBSUB_TRASH_NAME = "recyclebinName";
 
     // producer - master
@@ -209,6 +255,7 @@ public class OpflowConstant {
     public final static String OPFLOW_RESPONSE_QUEUE_DURABLE = "responseDurable";
     public final static String OPFLOW_RESPONSE_QUEUE_EXCLUSIVE = "responseExclusive";
     public final static String OPFLOW_RESPONSE_PREFETCH_COUNT = "prefetchCount";
+    public final static String OPFLOW_RESPONSE_DIRECT_REPLY_TO = "responseDirectReplyTo";
 
     // consumer - worker
     public final static String OPFLOW_INCOMING_QUEUE_NAME = "operatorName";
@@ -217,6 +264,7 @@ public class OpflowConstant {
     public final static String OPFLOW_INCOMING_QUEUE_EXCLUSIVE = "operatorExclusive";
     public final static String OPFLOW_INCOMING_BINDING_KEYS = "otherKeys";
     public final static String OPFLOW_INCOMING_PREFETCH_COUNT = "prefetchCount";
+    public final static String OPFLOW_INCOMING_CONCURRENCY = "consumerConcurrency";
 
     public final static String OPFLOW_OUTGOING_EXCHANGE_NAME = "outgoingExchangeName";
     public final static String OPFLOW_OUTGOING_EXCHANGE_TYPE = "outgoingExchangeType";
@@ -231,6 +279,7 @@ public class OpflowConstant {
     public final static String OPFLOW_REQ_HEADER_ROUTINE_SCOPE = "oxScope";
     public final static String OPFLOW_REQ_HEADER_ROUTINE_SIGNATURE = "oxSignature";
     public final static String OPFLOW_REQ_HEADER_ROUTINE_TAGS = "oxTags";
+    public final static String OPFLOW_REQ_HEADER_ROUTINE_DEADLINE = "oxDeadline";
     
     public final static String OPFLOW_RES_HEADER_PROTO_VERSION = "o-version";
     public final static String OPFLOW_RES_HEADER_SERVERLET_ID = "o-serverletId";
@@ -244,10 +293,15 @@ public class OpflowConstant {
     public final static String HTTP_HEADER_ROUTINE_SIGNATURE = OPFLOW_REQ_HEADER_ROUTINE_SIGNATURE;
     public final static String HTTP_HEADER_ROUTINE_SCOPE = OPFLOW_REQ_HEADER_ROUTINE_SCOPE;
     public final static String HTTP_HEADER_ROUTINE_TAGS = OPFLOW_REQ_HEADER_ROUTINE_TAGS;
+    public final static String HTTP_HEADER_ROUTINE_DEADLINE = OPFLOW_REQ_HEADER_ROUTINE_DEADLINE;
 
     public final static String HTTP_MASTER_PARAM_CALL_TIMEOUT = "callTimeout";
     public final static String HTTP_MASTER_PARAM_PUSH_TIMEOUT = "writeTimeout";
     public final static String HTTP_MASTER_PARAM_PULL_TIMEOUT = "readTimeout";
+    public final static String HTTP_MASTER_PARAM_MAX_REQUESTS = "maxRequests";
+    public final static String HTTP_MASTER_PARAM_MAX_REQUESTS_PER_HOST = "maxRequestsPerHost";
+    public final static String HTTP_MASTER_PARAM_MAX_IDLE_CONNECTIONS = "maxIdleConnections";
+    public final static String HTTP_MASTER_PARAM_KEEP_ALIVE_DURATION = "keepAliveDuration";
 
     //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ AMQP PARAMETERS
 
@@ -282,6 +336,7 @@ public class OpflowConstant {
     public final static String AMQP_PARAM_APP_ID = "appId";
     public final static String AMQP_PARAM_MESSAGE_TTL = "expiration";
     public final static String AMQP_PARAM_REPLY_TO = "replyTo";
+    public final static String AMQP_DIRECT_REPLY_TO_QUEUE = "amq.rabbitmq.reply-to";
 
     //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ OPFLOW/AMQP PROTOCOL
 
@@ -306,6 +361,7 @@ public class OpflowConstant {
 
     public final boolean LEGACY_ROUTINE_PINGPONG_APPLIED;
     public final static String OPFLOW_ROUTINE_PINGPONG_ALIAS = "opflow_routine_ping_ball_pong";
+    public final static String OPFLOW_ROUTINE_BATCH_SIGNATURE = "opflow_routine_batch_invocation";
 
     //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ CONSTRUCTORS
 
@@ -13,24 +13,41 @@ import com.devebot.opflow.supports.OpflowSystemInfo;
 import com.rabbitmq.nostro.client.AMQP;
 import com.rabbitmq.nostro.client.BlockedListener;
 import com.rabbitmq.nostro.client.Channel;
+import com.rabbitmq.nostro.client.ConfirmListener;
 import com.rabbitmq.nostro.client.Connection;
 import com.rabbitmq.nostro.client.ConnectionFactory;
 import com.rabbitmq.nostro.client.Consumer;
 import com.rabbitmq.nostro.client.DefaultConsumer;
 import com.rabbitmq.nostro.client.Envelope;
+import com.rabbitmq.nostro.client.Recoverable;
+import com.rabbitmq.nostro.client.RecoveryListener;
 import com.rabbitmq.nostro.client.ShutdownListener;
 import com.rabbitmq.nostro.client.ShutdownSignalException;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import javax.net.ssl.SSLContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,6 +83,10 @@ public class OpflowEngine implements AutoCloseable {
         OpflowConstant.AMQP_CONARG_TRUST_PASSPHRASE,
         OpflowConstant.AMQP_CONARG_SHARED_THREAD_POOL_TYPE,
         OpflowConstant.AMQP_CONARG_SHARED_THREAD_POOL_SIZE,
+        OpflowConstant.OPFLOW_PRODUCING_CHANNEL_TOTAL,
+        OpflowConstant.OPFLOW_PRODUCING_CONNECTION_TOTAL,
+        OpflowConstant.OPFLOW_PRODUCING_CHANNEL_SELECTION,
+        OpflowConstant.OPFLOW_PRODUCING_CONFIRM_ENABLED,
         OpflowConstant.OPFLOW_COMMON_APP_ID,
     };
     
@@ -84,23 +105,28 @@ public class OpflowEngine implements AutoCloseable {
     
     private String owner;
     private ConnectionFactory factory;
-    private String producingConnectionId;
-    private volatile Connection producingConnection;
-    private volatile Channel producingChannel;
+    private ProducingConnection[] producingConnections;
+    private ProducingChannel[] producingChannels;
+    private String producingChannelSelection = OpflowConstant.OPFLOW_PRODUCING_SELECTION_ROUND_ROBIN;
+    private boolean producingConfirmEnabled = false;
+    private final AtomicInteger producingChannelCursor = new AtomicInteger();
     private volatile BlockedListener producingBlockedListener;
+    private volatile Channel managementChannel;
+    private Timer ackTimer;
     private String consumingConnectionId;
     private volatile Connection consumingConnection;
     private volatile Channel consumingChannel;
     private volatile BlockedListener consumingBlockedListener;
     private List<ConsumerInfo> consumerInfos = new LinkedList<>();
+    private final List<Runnable> recoveryHandlers = new CopyOnWriteArrayList<>();
+    private final AtomicLong replyPublishCount = new AtomicLong();
     
     private ExecutorService sharedExecutor;
     private String threadPoolType = null;
     private Integer threadPoolSize = null;
     
-    private final Object producingConnectionLock = new Object();
-    private final Object producingChannelLock = new Object();
     private final Object producingBlockedListenerLock = new Object();
+    private final Object managementChannelLock = new Object();
     private final Object consumingConnectionLock = new Object();
     private final Object consumingChannelLock = new Object();
     private final Object consumingBlockedListenerLock = new Object();
@@ -341,6 +367,36 @@ public class OpflowEngine implements AutoCloseable {
                         .stringify());
             }
             
+            Integer producingConnectionTotal = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PRODUCING_CONNECTION_TOTAL, 1);
+            if (producingConnectionTotal == null || producingConnectionTotal <= 0) {
+                producingConnectionTotal = 1;
+            }
+            Integer producingChannelTotal = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PRODUCING_CHANNEL_TOTAL, 1);
+            if (producingChannelTotal == null || producingChannelTotal < producingConnectionTotal) {
+                producingChannelTotal = producingConnectionTotal;
+            }
+            if (OpflowConstant.OPFLOW_PRODUCING_SELECTION_THREAD_AFFINITY.equals(params.get(OpflowConstant.OPFLOW_PRODUCING_CHANNEL_SELECTION))) {
+                producingChannelSelection = OpflowConstant.OPFLOW_PRODUCING_SELECTION_THREAD_AFFINITY;
+            }
+            producingConfirmEnabled = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_PRODUCING_CONFIRM_ENABLED, Boolean.FALSE);
+            producingConnections = new ProducingConnection[producingConnectionTotal];
+            for (int i=0; i<producingConnections.length; i++) {
+                producingConnections[i] = new ProducingConnection(i);
+            }
+            producingChannels = new ProducingChannel[producingChannelTotal];
+            for (int i=0; i<producingChannels.length; i++) {
+                // the channels are spread evenly over the producing connections
+                producingChannels[i] = new ProducingChannel(i, producingConnections[i % producingConnections.length]);
+            }
+            
+            if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
+                    .put("producingConnectionTotal", producingConnectionTotal)
+                    .put("producingChannelTotal", producingChannelTotal)
+                    .put("producingChannelSelection", producingChannelSelection)
+                    .put("producingConfirmEnabled", producingConfirmEnabled)
+                    .text("Engine[${engineId}] use ${producingChannelTotal} producing channel(s) over ${producingConnectionTotal} connection(s), selection: ${producingChannelSelection}, confirm: ${producingConfirmEnabled}")
+                    .stringify());
+            
             if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
                     .put("channelMax", requestedChannelMax)
                     .put("frameMax", requestedFrameMax)
@@ -387,7 +443,7 @@ public class OpflowEngine implements AutoCloseable {
             if (exchangeDurable == null) exchangeDurable = true;
             
             if (exchangeName != null) {
-                getProducingChannel().exchangeDeclare(exchangeName, exchangeType, exchangeDurable);
+                producingChannels[0].getChannel().exchangeDeclare(exchangeName, exchangeType, exchangeDurable);
             }
             
             if (params.get(OpflowConstant.OPFLOW_PRODUCING_ROUTING_KEY) instanceof String) {
@@ -445,19 +501,38 @@ public class OpflowEngine implements AutoCloseable {
         return applicationId;
     }
     
-    public void produce(final byte[] body, final Map<String, Object> headers) {
-        produce(body, headers, null, null, null);
+    public boolean isProducingConfirmEnabled() {
+        return producingConfirmEnabled;
+    }
+    
+    public CompletableFuture<Boolean> produce(final byte[] body, final Map<String, Object> headers) {
+        return produce(body, headers, null, null, null);
     }
     
-    public void produce(final byte[] body, final Map<String, Object> headers, AMQP.BasicProperties.Builder propBuilder) {
-        produce(body, headers, propBuilder, null, null);
+    public CompletableFuture<Boolean> produce(final byte[] body, final Map<String, Object> headers, AMQP.BasicProperties.Builder propBuilder) {
+        return produce(body, headers, propBuilder, null, null);
     }
     
-    public void produce(final byte[] body, final Map<String, Object> headers, Map<String, Object> override) {
-        produce(body, headers, null, override, null);
+    public CompletableFuture<Boolean> produce(final byte[] body, final Map<String, Object> headers, Map<String, Object> override) {
+        return produce(body, headers, null, override, null);
     }
     
-    public void produce(final byte[] body, final Map<String, Object> headers, AMQP.BasicProperties.Builder propBuilder, Map<String, Object> override, OpflowLogTracer reqTracer) {
+    /**
+     * Publishes the message. The returned future is completed with true when
+     * the broker has confirmed the message (or at once if the confirm mode is
+     * disabled) and with false when the broker has nacked it.
+     */
+    public CompletableFuture<Boolean> produce(final byte[] body, final Map<String, Object> headers, AMQP.BasicProperties.Builder propBuilder, Map<String, Object> override, OpflowLogTracer reqTracer) {
+        return produce(body, headers, propBuilder, override, reqTracer, null);
+    }
+    
+    /**
+     * Publishes the message on the channel of the given consumer instead of a
+     * producing channel, as required by the direct reply-to pseudo-queue.
+     * These publishes are serialized on that single channel, so neither the
+     * pool of producing channels nor the publisher confirms apply to them.
+     */
+    public CompletableFuture<Boolean> produce(final byte[] body, final Map<String, Object> headers, AMQP.BasicProperties.Builder propBuilder, Map<String, Object> override, OpflowLogTracer reqTracer, ConsumerInfo replyConsumer) {
         propBuilder = (propBuilder == null) ? new AMQP.BasicProperties.Builder() : propBuilder;
         
         try {
@@ -502,11 +577,18 @@ public class OpflowEngine implements AutoCloseable {
                         .stringify());
             }
             
-            Channel _channel = getProducingChannel();
-            if (_channel == null || !_channel.isOpen()) {
-                throw new OpflowOperationException("Channel is null or has been closed");
+            if (replyConsumer != null) {
+                Channel _channel = replyConsumer.getChannel();
+                if (_channel == null || !_channel.isOpen()) {
+                    throw new OpflowOperationException("Channel is null or has been closed");
+                }
+                synchronized (replyConsumer) {
+                    _channel.basicPublish(reqExchangeName, reqRoutingKey, propBuilder.build(), body);
+                }
+                replyPublishCount.incrementAndGet();
+                return CompletableFuture.completedFuture(Boolean.TRUE);
             }
-            _channel.basicPublish(reqExchangeName, reqRoutingKey, propBuilder.build(), body);
+            return selectProducingChannel().publish(reqExchangeName, reqRoutingKey, propBuilder.build(), body);
         } catch (IOException exception) {
             if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) {
                 LOG.error(reqTracer
@@ -528,6 +610,86 @@ public class OpflowEngine implements AutoCloseable {
         }
     }
     
+    /**
+     * Publishes the body with the given properties as they are, on one of the
+     * producing channels.
+     */
+    public CompletableFuture<Boolean> produce(String exchangeName, String routingKey, AMQP.BasicProperties properties, byte[] body) {
+        try {
+            return selectProducingChannel().publish(exchangeName, routingKey, properties, body);
+        } catch (IOException | TimeoutException exception) {
+            throw new OpflowOperationException(exception);
+        }
+    }
+    
+    /**
+     * Publishes a batch of messages on a single producing channel. The
+     * override options are resolved once and the channel is locked once for
+     * the whole batch. The returned future is completed with true when every
+     * message has been confirmed and with false if any of them was nacked.
+     */
+    public CompletableFuture<Boolean> produce(final List<Message> messages, Map<String, Object> override, OpflowLogTracer reqTracer) {
+        if (messages == null || messages.isEmpty()) {
+            return CompletableFuture.completedFuture(Boolean.TRUE);
+        }
+        try {
+            String appId = this.applicationId;
+            String reqExchangeName = this.exchangeName;
+            String reqRoutingKey = this.routingKey;
+            String reqReplyTo = null;
+            
+            if (override != null) {
+                if (override.get(OpflowConstant.OPFLOW_COMMON_APP_ID) instanceof String) {
+                    appId = (String) override.get(OpflowConstant.OPFLOW_COMMON_APP_ID);
+                }
+                
+                if (override.get(OpflowConstant.OPFLOW_PRODUCING_EXCHANGE_NAME) instanceof String) {
+                    reqExchangeName = (String) override.get(OpflowConstant.OPFLOW_PRODUCING_EXCHANGE_NAME);
+                }
+                
+                if (override.get(OpflowConstant.OPFLOW_PRODUCING_ROUTING_KEY) instanceof String) {
+                    reqRoutingKey = (String) override.get(OpflowConstant.OPFLOW_PRODUCING_ROUTING_KEY);
+                }
+                
+                if (override.get(OpflowConstant.OPFLOW_CONSUMING_REPLY_TO) instanceof String) {
+                    reqReplyTo = override.get(OpflowConstant.OPFLOW_CONSUMING_REPLY_TO).toString();
+                }
+            }
+            
+            List<AMQP.BasicProperties> propsList = new ArrayList<>(messages.size());
+            List<byte[]> bodies = new ArrayList<>(messages.size());
+            for (Message message: messages) {
+                AMQP.BasicProperties.Builder propBuilder = new AMQP.BasicProperties.Builder();
+                if (reqReplyTo != null) {
+                    propBuilder.replyTo(reqReplyTo);
+                }
+                propsList.add(propBuilder.appId(appId).headers(message.getHeaders()).build());
+                bodies.add(message.getBody());
+            }
+            
+            if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) {
+                LOG.info(reqTracer
+                        .put("engineId", componentId)
+                        .put("appId", appId)
+                        .put("routingKey", reqRoutingKey)
+                        .put("batchSize", messages.size())
+                        .text("Engine[${engineId}][${instanceId}] - produce() is invoked with a batch of ${batchSize} messages")
+                        .stringify());
+            }
+            
+            return selectProducingChannel().publish(reqExchangeName, reqRoutingKey, propsList, bodies);
+        } catch (IOException | TimeoutException exception) {
+            if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) {
+                LOG.error(reqTracer
+                        .put("exceptionClass", exception.getClass().getName())
+                        .put("exceptionMessage", exception.getMessage())
+                        .text("Engine[${engineId}][${instanceId}] - produce() a batch has failed")
+                        .stringify());
+            }
+            throw new OpflowOperationException(exception);
+        }
+    }
+    
     public ConsumerInfo consume(final OpflowEngine.Listener listener, final Map<String, Object> options) {
         final Map<String, Object> opts = OpflowObjectTree.ensureNonNull(options);
         final String _consumerId = OpflowUtil.getStringField(opts, OpflowConstant.OPFLOW_CONSUMING_CONSUMER_ID, true);
@@ -556,22 +718,26 @@ public class OpflowEngine implements AutoCloseable {
             final boolean opts_durable = !Boolean.FALSE.equals(opts.get(OpflowConstant.OPFLOW_CONSUMING_QUEUE_DURABLE));
             final boolean opts_exclusive = Boolean.TRUE.equals(opts.get(OpflowConstant.OPFLOW_CONSUMING_QUEUE_EXCLUSIVE));
             final boolean opts_autoDelete = Boolean.TRUE.equals(opts.get(OpflowConstant.OPFLOW_CONSUMING_QUEUE_AUTO_DELETE));
-            AMQP.Queue.DeclareOk _declareOk;
-            if (opts_queueName != null) {
+            // the direct reply-to pseudo-queue must not be declared and is consumed in no-ack mode
+            final boolean _directReplyTo = OpflowConstant.AMQP_DIRECT_REPLY_TO_QUEUE.equals(opts_queueName);
+            AMQP.Queue.DeclareOk _declareOk = null;
+            if (_directReplyTo) {
+                _fixedQueue = true;
+            } else if (opts_queueName != null) {
                 _declareOk = _channel.queueDeclare(opts_queueName, opts_durable, opts_exclusive, opts_autoDelete, null);
                 _fixedQueue = true;
             } else {
                 _declareOk = _channel.queueDeclare();
                 _fixedQueue = false;
             }
-            _queueName = _declareOk.getQueue();
+            _queueName = (_declareOk != null) ? _declareOk.getQueue() : opts_queueName;
             final Integer _consumerLimit = (Integer) opts.get(OpflowConstant.OPFLOW_CONSUMING_CONSUMER_LIMIT);
-            if (logConsume.ready(LOG, Level.TRACE)) LOG.trace(logConsume
+            if (_declareOk != null && logConsume.ready(LOG, Level.TRACE)) LOG.trace(logConsume
                     .put("consumerCount", _declareOk.getConsumerCount())
                     .put("consumerLimit", _consumerLimit)
                     .text("Consumer[${consumerId}].consume() - consumerCount(${consumerCount})/consumerLimit(${consumerLimit})")
                     .stringify());
-            if (_consumerLimit != null && _consumerLimit > 0) {
+            if (_declareOk != null && _consumerLimit != null && _consumerLimit > 0) {
                 if (_declareOk.getConsumerCount() >= _consumerLimit) {
                     if (logConsume.ready(LOG, Level.ERROR)) LOG.error(logConsume
                             .put("consumerCount", _declareOk.getConsumerCount())
@@ -606,7 +772,9 @@ public class OpflowEngine implements AutoCloseable {
             }
             
             final Boolean _autoAck;
-            if (opts.get(OpflowConstant.OPFLOW_CONSUMING_AUTO_ACK) instanceof Boolean) {
+            if (_directReplyTo) {
+                _autoAck = Boolean.TRUE;
+            } else if (opts.get(OpflowConstant.OPFLOW_CONSUMING_AUTO_ACK) instanceof Boolean) {
                 _autoAck = (Boolean) opts.get(OpflowConstant.OPFLOW_CONSUMING_AUTO_ACK);
             } else {
                 _autoAck = Boolean.TRUE;
@@ -619,112 +787,194 @@ public class OpflowEngine implements AutoCloseable {
                 _requeueFailure = Boolean.FALSE;
             }
             
-            final Consumer _consumer = new DefaultConsumer(_channel) {
-                private void invokeAck(Envelope envelope, boolean success) throws IOException {
-                    if (!_autoAck) {
-                        if (success) {
-                            _channel.basicAck(envelope.getDeliveryTag(), false);
-                        } else {
-                            if (!_requeueFailure) {
-                                _channel.basicAck(envelope.getDeliveryTag(), false);
+            Integer _concurrency = OpflowUtil.getIntegerField(opts, OpflowConstant.OPFLOW_CONSUMING_CONCURRENCY, 1);
+            if (_concurrency == null || _concurrency < 1 || _directReplyTo) {
+                _concurrency = 1;
+            }
+            
+            Integer _ackBatchSize = OpflowUtil.getIntegerField(opts, OpflowConstant.OPFLOW_CONSUMING_ACK_BATCH_SIZE, 0);
+            if (_ackBatchSize == null || _autoAck) {
+                _ackBatchSize = 0;
+            }
+            Long _ackBatchTimeout = OpflowUtil.getLongField(opts, OpflowConstant.OPFLOW_CONSUMING_ACK_BATCH_TIMEOUT, AckBatcher.DEFAULT_TIMEOUT);
+            if (_ackBatchTimeout == null || _ackBatchTimeout <= 0) {
+                _ackBatchTimeout = AckBatcher.DEFAULT_TIMEOUT;
+            }
+            
+            // a multiple ack covers every lower tag of the channel, so a batching consumer never shares its channel
+            final boolean _sharedChannel = !_forceNewConnection && !_forceNewChannel;
+            
+            final List<ConsumerUnit> _units = new ArrayList<>(_concurrency);
+            for (int i=0; i<_concurrency; i++) {
+                // deliveries are dispatched serially per channel, so each extra consumer gets its own channel
+                final Channel _unitChannel;
+                if (i == 0 && !(_ackBatchSize > 1 && _sharedChannel)) {
+                    _unitChannel = _channel;
+                } else {
+                    _unitChannel = _connection.createChannel();
+                    if (_prefetchCount != null && _prefetchCount > 0) {
+                        _unitChannel.basicQos(_prefetchCount);
+                    }
+                }
+                final AtomicInteger _inflight = new AtomicInteger();
+                final AckBatcher _ackBatcher = (_ackBatchSize > 1) ? new AckBatcher(_unitChannel, _ackBatchSize, _ackBatchTimeout) : null;
+                final Consumer _consumer = new DefaultConsumer(_unitChannel) {
+                    private void invokeAck(Envelope envelope, long ackGeneration, boolean success) throws IOException {
+                        if (!_autoAck) {
+                            if (_ackBatcher != null) {
+                                if (success || !_requeueFailure) {
+                                    _ackBatcher.ack(envelope.getDeliveryTag(), ackGeneration);
+                                } else {
+                                    _ackBatcher.nack(envelope.getDeliveryTag(), ackGeneration);
+                                }
+                                return;
+                            }
+                            if (success) {
+                                _unitChannel.basicAck(envelope.getDeliveryTag(), false);
                             } else {
-                                _channel.basicNack(envelope.getDeliveryTag(), false, true);
+                                if (!_requeueFailure) {
+                                    _unitChannel.basicAck(envelope.getDeliveryTag(), false);
+                                } else {
+                                    _unitChannel.basicNack(envelope.getDeliveryTag(), false, true);
+                                }
                             }
                         }
                     }
-                }
 
-                @Override
-                public void handleDelivery(String consumerTag, Envelope envelope,
-                                           AMQP.BasicProperties properties, byte[] body) throws IOException {
-                    final Map<String, Object> headers = properties.getHeaders();
-                    final String routineId = OpflowUtil.getRoutineId(headers, false);
-                    final String routineTimestamp = OpflowUtil.getRoutineTimestamp(headers, false);
-                    final String routineScope = OpflowUtil.getRoutineScope(headers);
+                    @Override
+                    public void handleDelivery(String consumerTag, final Envelope envelope,
+                                               AMQP.BasicProperties properties, byte[] body) throws IOException {
+                        final Map<String, Object> headers = properties.getHeaders();
+                        final String routineId = OpflowUtil.getRoutineId(headers, false);
+                        final String routineTimestamp = OpflowUtil.getRoutineTimestamp(headers, false);
+                        final String routineScope = OpflowUtil.getRoutineScope(headers);
 
-                    final OpflowLogTracer reqTracer = logConsume.branch(OpflowConstant.REQUEST_TIME, routineTimestamp)
-                            .branch(OpflowConstant.REQUEST_ID, routineId, new OpflowUtil.OmitInternalOplogs(routineScope));
+                        final OpflowLogTracer reqTracer = logConsume.branch(OpflowConstant.REQUEST_TIME, routineTimestamp)
+                                .branch(OpflowConstant.REQUEST_ID, routineId, new OpflowUtil.OmitInternalOplogs(routineScope));
 
-                    try {
-                        if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                            .put("appId", properties.getAppId())
-                            .put("deliveryTag", envelope.getDeliveryTag())
-                            .put("consumerTag", consumerTag)
-                            .put("bodyLength", body.length)
-                            .text("Request[${requestId}][${requestTime}][x-engine-msg-received] - Consumer[${consumerId}] receives a message (${bodyLength} bytes)")
-                            .stringify());
+                        // a recovered channel starts a new generation, its delivery tags go on from an unknown value
+                        final long _ackGeneration = (_ackBatcher != null) ? _ackBatcher.register(envelope.getDeliveryTag()) : 0;
+                        Acknowledger deferred = null;
+                        _inflight.incrementAndGet();
+                        try {
+                            if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                                .put("appId", properties.getAppId())
+                                .put("deliveryTag", envelope.getDeliveryTag())
+                                .put("consumerTag", consumerTag)
+                                .put("bodyLength", body.length)
+                                .text("Request[${requestId}][${requestTime}][x-engine-msg-received] - Consumer[${consumerId}] receives a message (${bodyLength} bytes)")
+                                .stringify());
 
-                        if (applicationId == null || applicationId.equals(properties.getAppId())) {
-                            if (reqTracer != null && reqTracer.ready(LOG, Level.TRACE)) LOG.trace(reqTracer
-                                    .text("Request[${requestId}][${requestTime}] invoke listener.processMessage()")
-                                    .stringify());
+                            if (applicationId == null || applicationId.equals(properties.getAppId())) {
+                                if (reqTracer != null && reqTracer.ready(LOG, Level.TRACE)) LOG.trace(reqTracer
+                                        .text("Request[${requestId}][${requestTime}] invoke listener.processMessage()")
+                                        .stringify());
                             
-                            Map<String, String> extras = OpflowObjectTree.buildMap(false)
-                                    .put(CONST.AMQP_HEADER_ROUTINE_ID, routineId)
-                                    .put(CONST.AMQP_HEADER_ROUTINE_TIMESTAMP, routineTimestamp)
-                                    .put(CONST.AMQP_HEADER_ROUTINE_SCOPE, routineScope)
-                                    .toMap();
+                                Map<String, String> extras = OpflowObjectTree.buildMap(false)
+                                        .put(CONST.AMQP_HEADER_ROUTINE_ID, routineId)
+                                        .put(CONST.AMQP_HEADER_ROUTINE_TIMESTAMP, routineTimestamp)
+                                        .put(CONST.AMQP_HEADER_ROUTINE_SCOPE, routineScope)
+                                        .toMap();
                             
-                            boolean captured = listener.processMessage(body, properties, _replyToName, _channel, consumerTag, extras);
+                                if (listener instanceof DeferredListener && !_autoAck) {
+                                    // the message is acked by the listener once the work is done
+                                    deferred = new Acknowledger() {
+                                        private final AtomicBoolean settled = new AtomicBoolean(false);
+                                        @Override
+                                        public void ack(boolean success) throws IOException {
+                                            if (settled.compareAndSet(false, true)) {
+                                                try {
+                                                    invokeAck(envelope, _ackGeneration, success);
+                                                } finally {
+                                                    _inflight.decrementAndGet();
+                                                }
+                                            }
+                                        }
+                                    };
+                                    ((DeferredListener) listener).processMessage(body, properties, _replyToName, _unitChannel, consumerTag, extras, deferred);
+                                    return;
+                                }
+                                
+                                boolean captured = listener.processMessage(body, properties, _replyToName, _unitChannel, consumerTag, extras);
                             
-                            if (captured) {
-                                if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                                        .text("Request[${requestId}][${requestTime}][x-engine-delivery-ok] has finished successfully")
+                                if (captured) {
+                                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                                            .text("Request[${requestId}][${requestTime}][x-engine-delivery-ok] has finished successfully")
+                                            .stringify());
+                                } else {
+                                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                                            .text("Request[${requestId}][${requestTime}][x-engine-delivery-skipped] has not matched the criteria, skipped")
+                                            .stringify());
+                                }
+                            
+                                if (reqTracer != null && reqTracer.ready(LOG, Level.TRACE)) LOG.trace(reqTracer
+                                        .put("deliveryTag", envelope.getDeliveryTag())
+                                        .put("consumerTag", consumerTag)
+                                        .text("Request[${requestId}][${requestTime}][x-engine-delivery-ack] invoke ACK")
                                         .stringify());
+                            
+                                invokeAck(envelope, _ackGeneration, true);
                             } else {
                                 if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                                        .text("Request[${requestId}][${requestTime}][x-engine-delivery-skipped] has not matched the criteria, skipped")
+                                        .put("applicationId", applicationId)
+                                        .text("Request[${requestId}][${requestTime}][x-engine-delivery-rejected] has been rejected, mismatched applicationId")
                                         .stringify());
+                                invokeAck(envelope, _ackGeneration, false);
                             }
-                            
-                            if (reqTracer != null && reqTracer.ready(LOG, Level.TRACE)) LOG.trace(reqTracer
+                        } catch (Exception ex) {
+                            // catch ALL of Error here: don't let it harm our service/close the channel
+                            if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) LOG.error(reqTracer
                                     .put("deliveryTag", envelope.getDeliveryTag())
                                     .put("consumerTag", consumerTag)
-                                    .text("Request[${requestId}][${requestTime}][x-engine-delivery-ack] invoke ACK")
-                                    .stringify());
-                            
-                            invokeAck(envelope, true);
-                        } else {
-                            if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                                    .put("applicationId", applicationId)
-                                    .text("Request[${requestId}][${requestTime}][x-engine-delivery-rejected] has been rejected, mismatched applicationId")
+                                    .put("exceptionClass", ex.getClass().getName())
+                                    .put("exceptionMessage", ex.getMessage())
+                                    .put("autoAck", _autoAck)
+                                    .put("requeueFailure", _requeueFailure)
+                                    .text("Request[${requestId}][${requestTime}][x-engine-delivery-exception] has been failed. Service still alive")
                                     .stringify());
-                            invokeAck(envelope, false);
+                            //ex.printStackTrace();
+                            if (deferred != null) {
+                                deferred.ack(false);
+                            } else {
+                                invokeAck(envelope, _ackGeneration, false);
+                            }
+                        } finally {
+                            if (deferred == null) {
+                                _inflight.decrementAndGet();
+                            }
                         }
-                    } catch (Exception ex) {
-                        // catch ALL of Error here: don't let it harm our service/close the channel
-                        if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) LOG.error(reqTracer
-                                .put("deliveryTag", envelope.getDeliveryTag())
+                    }
+                
+                    @Override
+                    public void handleCancelOk(String consumerTag) {
+                        if (logConsume.ready(LOG, Level.INFO)) LOG.info(logConsume
                                 .put("consumerTag", consumerTag)
-                                .put("exceptionClass", ex.getClass().getName())
-                                .put("exceptionMessage", ex.getMessage())
-                                .put("autoAck", _autoAck)
-                                .put("requeueFailure", _requeueFailure)
-                                .text("Request[${requestId}][${requestTime}][x-engine-delivery-exception] has been failed. Service still alive")
+                                .text("Consumer[${consumerId}].consume() - handle CancelOk event")
                                 .stringify());
-                        //ex.printStackTrace();
-                        invokeAck(envelope, false);
                     }
-                }
                 
-                @Override
-                public void handleCancelOk(String consumerTag) {
-                    if (logConsume.ready(LOG, Level.INFO)) LOG.info(logConsume
-                            .put("consumerTag", consumerTag)
-                            .text("Consumer[${consumerId}].consume() - handle CancelOk event")
-                            .stringify());
-                }
+                    @Override
+                    public void handleShutdownSignal(String consumerTag, ShutdownSignalException sig) {
+                        if (logConsume.ready(LOG, Level.INFO)) LOG.info(logConsume
+                                .put("consumerTag", consumerTag)
+                                .text("Consumer[${consumerId}].consume() - handle ShutdownSignal event")
+                                .stringify());
+                    }
+                };
                 
-                @Override
-                public void handleShutdownSignal(String consumerTag, ShutdownSignalException sig) {
-                    if (logConsume.ready(LOG, Level.INFO)) LOG.info(logConsume
-                            .put("consumerTag", consumerTag)
-                            .text("Consumer[${consumerId}].consume() - handle ShutdownSignal event")
-                            .stringify());
-                }
-            };
+                final String _unitTag = _unitChannel.basicConsume(_queueName, _autoAck, _consumer);
+                _units.add(new ConsumerUnit(_unitChannel, _unitTag, _inflight, _ackBatcher));
+                
+                if (logConsume.ready(LOG, Level.DEBUG)) LOG.debug(logConsume
+                        .put("consumerTag", _unitTag)
+                        .put("channelNumber", _unitChannel.getChannelNumber())
+                        .put("unitIndex", i)
+                        .put("concurrency", _concurrency)
+                        .text("Consumer[${consumerId}].consume() - consumer unit[${unitIndex}/${concurrency}][${consumerTag}] is started on channel[${channelNumber}]")
+                        .stringify());
+            }
             
-            final String _consumerTag = _channel.basicConsume(_queueName, _autoAck, _consumer);
+            final String _consumerTag = _units.get(0).getConsumerTag();
             
             if (logConsume.ready(LOG, Level.INFO)) LOG.info(logConsume
                     .put("queueName", _queueName)
@@ -733,7 +983,7 @@ public class OpflowEngine implements AutoCloseable {
                     .text("Consumer[${consumerId}].consume() create consumer[${consumerTag}]/queue[${queueName}]")
                     .stringify());
             ConsumerInfo info = new ConsumerInfo(_connection, !_forceNewConnection, 
-                    _channel, !_forceNewChannel, _queueName, _fixedQueue, _consumerId, _consumerTag);
+                    _channel, !_forceNewChannel, _queueName, _fixedQueue, _consumerId, _consumerTag, _units);
             if (OpflowConstant.COMP_ENGINE.equals(owner)) {
                 consumerInfos.add(info);
             }
@@ -774,6 +1024,26 @@ public class OpflowEngine implements AutoCloseable {
         return output;
     }
     
+    /**
+     * Runs the operator on a long-lived management channel (opened on the first
+     * producing connection) instead of a new connection per operation. A
+     * channel-level error such as a failed passive declare closes the channel,
+     * so it is re-created on the next call.
+     */
+    public <T> T acquireManagementChannel(Operator listener) throws IOException, TimeoutException {
+        synchronized (managementChannelLock) {
+            if (managementChannel == null || !managementChannel.isOpen()) {
+                managementChannel = producingConnections[0].getConnection().createChannel();
+                if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                        .tags("managementChannelCreated")
+                        .put("channelNumber", managementChannel.getChannelNumber())
+                        .text("Engine[${engineId}] managementChannel[${channelNumber}] is created")
+                        .stringify());
+            }
+            return (listener != null) ? (T) listener.handleEvent(managementChannel) : null;
+        }
+    }
+    
     public void cancelConsumer(OpflowEngine.ConsumerInfo consumerInfo) {
         if (consumerInfo == null) return;
         final OpflowLogTracer logCancel = logTracer.branch("consumerId", consumerInfo.getConsumerId());
@@ -782,7 +1052,23 @@ public class OpflowEngine implements AutoCloseable {
                     .text("Consumer[${consumerId}].cancelConsumer() - consumer will be cancelled")
                     .stringify());
 
-            consumerInfo.getChannel().basicCancel(consumerInfo.getConsumerTag());
+            for (ConsumerUnit unit: consumerInfo.getUnits()) {
+                if (unit.ackBatcher != null) {
+                    unit.ackBatcher.close();
+                }
+            }
+
+            for (ConsumerUnit unit: consumerInfo.getUnits()) {
+                if (unit.getChannel() != consumerInfo.getChannel() && unit.getChannel().isOpen()) {
+                    unit.getChannel().basicCancel(unit.getConsumerTag());
+                    unit.getChannel().close();
+                }
+            }
+
+            // the first unit owns a private channel when it batches its acks, it has been cancelled above
+            if (consumerInfo.getUnits().get(0).getChannel() == consumerInfo.getChannel()) {
+                consumerInfo.getChannel().basicCancel(consumerInfo.getConsumerTag());
+            }
 
             if (logCancel.ready(LOG, Level.DEBUG)) LOG.debug(logCancel
                     .text("Consumer[${consumerId}].cancelConsumer() - consumer has been cancelled")
@@ -831,6 +1117,7 @@ public class OpflowEngine implements AutoCloseable {
         private final boolean fixedQueue;
         private final String consumerId;
         private final String consumerTag;
+        private final List<ConsumerUnit> units;
         
         public ConsumerInfo(
                 Connection connection,
@@ -842,6 +1129,21 @@ public class OpflowEngine implements AutoCloseable {
                 String consumerId,
                 String consumerTag
         ) {
+            this(connection, sharedConnection, channel, sharedChannel, queueName, fixedQueue, consumerId, consumerTag, null);
+        }
+        
+        public ConsumerInfo(
+                Connection connection,
+                boolean sharedConnection,
+                Channel channel,
+                boolean sharedChannel,
+                String queueName,
+                boolean fixedQueue,
+                String consumerId,
+                String consumerTag,
+                List<ConsumerUnit> units
+        ) {
+            this.units = (units != null) ? units : Collections.<ConsumerUnit>emptyList();
             this.connection = connection;
             this.sharedConnection = sharedConnection;
             this.channel = channel;
@@ -883,6 +1185,198 @@ public class OpflowEngine implements AutoCloseable {
         public String getConsumerTag() {
             return consumerTag;
         }
+        
+        public List<ConsumerUnit> getUnits() {
+            return units;
+        }
+        
+        public int getInflightCount() {
+            int total = 0;
+            for (ConsumerUnit unit: units) {
+                total += unit.getInflightCount();
+            }
+            return total;
+        }
+    }
+    
+    public static class ConsumerUnit {
+        private final Channel channel;
+        private final String consumerTag;
+        private final AtomicInteger inflight;
+        private final AckBatcher ackBatcher;
+        
+        ConsumerUnit(Channel channel, String consumerTag, AtomicInteger inflight, AckBatcher ackBatcher) {
+            this.channel = channel;
+            this.consumerTag = consumerTag;
+            this.inflight = inflight;
+            this.ackBatcher = ackBatcher;
+        }
+        
+        public Channel getChannel() {
+            return channel;
+        }
+        
+        public String getConsumerTag() {
+            return consumerTag;
+        }
+        
+        public int getInflightCount() {
+            return inflight.get();
+        }
+        
+        public int getPendingAckCount() {
+            return (ackBatcher != null) ? ackBatcher.getPendingCount() : 0;
+        }
+    }
+    
+    private synchronized Timer getAckTimer() {
+        if (ackTimer == null) {
+            ackTimer = new Timer("Timer-" + OpflowEngine.class.getSimpleName() + "-ack", true);
+        }
+        return ackTimer;
+    }
+    
+    /**
+     * Collects the delivery tags of the completed messages and acknowledges
+     * them with a single multiple=true ack once the batch size has been
+     * reached or the timeout has elapsed. Only the contiguous range of
+     * completed tags is acknowledged, so out-of-order completions never
+     * acknowledge a message which is still being processed. The batcher must
+     * own its channel, and it is reset whenever the channel is shutdown.
+     */
+    private class AckBatcher {
+        private final static long DEFAULT_TIMEOUT = 100;
+        
+        private final Channel channel;
+        private final int batchSize;
+        private final TimerTask flushTask;
+        private final TreeSet<Long> completed = new TreeSet<>();
+        private final TreeSet<Long> rejected = new TreeSet<>();
+        private long ackedTag = 0;
+        private long settledTag = 0;
+        private long generation = 0;
+        private boolean started = false;
+        private boolean closed = false;
+        
+        AckBatcher(Channel channel, int batchSize, long timeout) {
+            this.channel = channel;
+            this.batchSize = batchSize;
+            this.channel.addShutdownListener(new ShutdownListener() {
+                @Override
+                public void shutdownCompleted(ShutdownSignalException sse) {
+                    reset();
+                }
+            });
+            this.flushTask = new TimerTask() {
+                @Override
+                public void run() {
+                    try {
+                        flush();
+                    } catch (IOException | RuntimeException exception) {
+                        if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                                .put("exceptionClass", exception.getClass().getName())
+                                .put("exceptionMessage", exception.getMessage())
+                                .text("Engine[${engineId}] cannot flush the pending acks: ${exceptionMessage}")
+                                .stringify());
+                    }
+                }
+            };
+            getAckTimer().scheduleAtFixedRate(flushTask, timeout, timeout);
+        }
+        
+        /**
+         * Returns the generation of a delivered message. The first delivery of
+         * a generation sets the starting point of the tags, since a recovered
+         * channel does not restart them at 1.
+         */
+        synchronized long register(long deliveryTag) {
+            if (!started) {
+                started = true;
+                ackedTag = deliveryTag - 1;
+                settledTag = deliveryTag - 1;
+            }
+            return generation;
+        }
+        
+        synchronized void reset() {
+            // the unacked messages are redelivered by the broker, their tags are meaningless from now on
+            completed.clear();
+            rejected.clear();
+            ackedTag = 0;
+            settledTag = 0;
+            started = false;
+            generation++;
+        }
+        
+        synchronized void ack(long deliveryTag, long deliveryGeneration) throws IOException {
+            if (deliveryGeneration != generation) {
+                return;
+            }
+            if (closed) {
+                channel.basicAck(deliveryTag, false);
+                return;
+            }
+            settle(deliveryTag);
+            if (settledTag - ackedTag >= batchSize) {
+                flush();
+            }
+        }
+        
+        synchronized void nack(long deliveryTag, long deliveryGeneration) throws IOException {
+            if (deliveryGeneration != generation) {
+                return;
+            }
+            // a requeued message must not be covered by a later multiple ack
+            channel.basicNack(deliveryTag, false, true);
+            if (closed) {
+                return;
+            }
+            rejected.add(deliveryTag);
+            settle(deliveryTag);
+        }
+        
+        synchronized void flush() throws IOException {
+            if (settledTag <= ackedTag) {
+                return;
+            }
+            long tag = settledTag;
+            while (tag > ackedTag && rejected.contains(tag)) {
+                tag--;
+            }
+            if (tag > ackedTag && channel.isOpen()) {
+                channel.basicAck(tag, true);
+            }
+            ackedTag = settledTag;
+            rejected.headSet(settledTag, true).clear();
+        }
+        
+        synchronized int getPendingCount() {
+            return (int) (settledTag - ackedTag) + completed.size();
+        }
+        
+        synchronized void close() {
+            flushTask.cancel();
+            try {
+                flush();
+            } catch (IOException exception) {
+                if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                        .put("exceptionClass", exception.getClass().getName())
+                        .put("exceptionMessage", exception.getMessage())
+                        .text("Engine[${engineId}] cannot flush the pending acks on close: ${exceptionMessage}")
+                        .stringify());
+            }
+            closed = true;
+        }
+        
+        private void settle(long deliveryTag) {
+            if (deliveryTag <= settledTag) {
+                return;
+            }
+            completed.add(deliveryTag);
+            while (!completed.isEmpty() && completed.first() == settledTag + 1) {
+                settledTag = completed.pollFirst();
+            }
+        }
     }
     
     public static class State {
@@ -894,13 +1388,37 @@ public class OpflowEngine implements AutoCloseable {
         };
         
         private int connectionState = -1;
+        private int producingChannelTotal = 0;
+        private int producingConnectionTotal = 0;
+        private long producingWaitCount = 0;
+        private long producingWaitTime = 0;
         
         public int getConnectionState() {
             return connectionState;
         }
         
+        public int getProducingChannelTotal() {
+            return producingChannelTotal;
+        }
+        
+        public int getProducingConnectionTotal() {
+            return producingConnectionTotal;
+        }
+        
+        public long getProducingWaitCount() {
+            return producingWaitCount;
+        }
+        
+        public long getProducingWaitTime() {
+            return producingWaitTime;
+        }
+        
         public State(State state) {
             this.connectionState = state.connectionState;
+            this.producingChannelTotal = state.producingChannelTotal;
+            this.producingConnectionTotal = state.producingConnectionTotal;
+            this.producingWaitCount = state.producingWaitCount;
+            this.producingWaitTime = state.producingWaitTime;
         }
         
         private State(int connectionState) {
@@ -915,11 +1433,49 @@ public class OpflowEngine implements AutoCloseable {
     }
     
     public State check() {
-        int conn = producingConnection != null && producingConnection.isOpen() ? State.CONNECTION_OPENED : State.CONNECTION_CLOSED;
+        int conn = State.CONNECTION_CLOSED;
+        for (ProducingConnection producingConnection: producingConnections) {
+            if (producingConnection.isOpen()) {
+                conn = State.CONNECTION_OPENED;
+                break;
+            }
+        }
         State state = new State(conn);
+        state.producingConnectionTotal = producingConnections.length;
+        state.producingChannelTotal = producingChannels.length;
+        for (ProducingChannel producingChannel: producingChannels) {
+            state.producingWaitCount += producingChannel.waitCount.get();
+            state.producingWaitTime += producingChannel.waitTime.get();
+        }
         return state;
     }
     
+    public int getProducingChannelTotal() {
+        return producingChannels.length;
+    }
+    
+    public long getPublishCount() {
+        long total = replyPublishCount.get();
+        for (ProducingChannel producingChannel: producingChannels) {
+            total += producingChannel.publishCount.get();
+        }
+        return total;
+    }
+    
+    public Map<String, Object> getProducingInfo() {
+        List<Object> channels = new LinkedList<>();
+        for (ProducingChannel producingChannel: producingChannels) {
+            channels.add(producingChannel.toMap());
+        }
+        return OpflowObjectTree.buildMap()
+                .put(OpflowConstant.OPFLOW_PRODUCING_CONNECTION_TOTAL, producingConnections.length)
+                .put(OpflowConstant.OPFLOW_PRODUCING_CHANNEL_TOTAL, producingChannels.length)
+                .put(OpflowConstant.OPFLOW_PRODUCING_CHANNEL_SELECTION, producingChannelSelection)
+                .put(OpflowConstant.OPFLOW_PRODUCING_CONFIRM_ENABLED, producingConfirmEnabled)
+                .put("channels", channels)
+                .toMap();
+    }
+    
     /**
      * Close this broker.
      *
@@ -931,42 +1487,35 @@ public class OpflowEngine implements AutoCloseable {
             .text("Engine[${engineId}].close() - close producingChannel, producingConnection")
             .stringify());
         
-        synchronized (producingChannelLock) {
+        synchronized (managementChannelLock) {
             try {
-                if (producingChannel != null && producingChannel.isOpen()) {
-                    if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
-                            .tags("sharedProducingChannelClosed")
-                            .text("Engine[${engineId}].close() shared producingChannel is closing")
-                            .stringify());
-                    producingChannel.close();
+                if (managementChannel != null && managementChannel.isOpen()) {
+                    managementChannel.close();
                 }
             } catch (IOException | TimeoutException exception) {
                 if (logTracer.ready(LOG, Level.ERROR)) LOG.error(logTracer
-                        .text("Engine[${engineId}].close() has failed in closing the producingChannel")
+                        .text("Engine[${engineId}].close() has failed in closing the managementChannel")
                         .stringify());
             } finally {
-                producingChannel = null;
+                managementChannel = null;
             }
-            
-            synchronized (producingConnectionLock) {
-                try {
-                    if (producingConnection != null && producingConnection.isOpen()) {
-                        if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
-                                .tags("sharedProducingConnectionClosed")
-                                .text("Engine[${engineId}].close() shared producingConnection is closing")
-                                .stringify());
-                        producingConnection.close();
-                    }
-                } catch (IOException exception) {
-                    if (logTracer.ready(LOG, Level.ERROR)) LOG.error(logTracer
-                            .text("Engine[${engineId}].close() has failed in closing the producingConnection")
-                            .stringify());
-                } finally {
-                    producingConnection = null;
-                }
+        }
+        
+        for (ProducingChannel producingChannel: producingChannels) {
+            producingChannel.close();
+        }
+        
+        synchronized (this) {
+            if (ackTimer != null) {
+                ackTimer.cancel();
+                ackTimer = null;
             }
         }
         
+        for (ProducingConnection producingConnection: producingConnections) {
+            producingConnection.close();
+        }
+        
         if (OpflowConstant.COMP_ENGINE.equals(owner)) {
             if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
                     .put("owner", owner)
@@ -1071,88 +1620,339 @@ public class OpflowEngine implements AutoCloseable {
         return (conn != null) ? conn.getId() : null;
     }
     
-    private Connection getProducingConnection() throws IOException, TimeoutException {
-        if (producingConnection == null || !producingConnection.isOpen()) {
-            synchronized (producingConnectionLock) {
-                if (producingConnection == null || !producingConnection.isOpen()) {
-                    producingConnectionId = OpflowUUID.getBase64ID();
-                    producingConnection = factory.newConnection();
-                    producingConnection.setId(producingConnectionId);
-                    producingConnection.addBlockedListener(new BlockedListener() {
-                        private final OpflowLogTracer localLog = logTracer.copy();
+    private ProducingChannel selectProducingChannel() {
+        if (producingChannels.length == 1) {
+            return producingChannels[0];
+        }
+        int index;
+        if (OpflowConstant.OPFLOW_PRODUCING_SELECTION_THREAD_AFFINITY.equals(producingChannelSelection)) {
+            index = (int) (Thread.currentThread().getId() % producingChannels.length);
+        } else {
+            index = (producingChannelCursor.getAndIncrement() & Integer.MAX_VALUE) % producingChannels.length;
+        }
+        return producingChannels[index];
+    }
+    
+    private class ProducingConnection {
+        private final int index;
+        private String connectionId;
+        private volatile Connection connection;
+        
+        ProducingConnection(int index) {
+            this.index = index;
+        }
+        
+        boolean isOpen() {
+            Connection _connection = connection;
+            return _connection != null && _connection.isOpen();
+        }
+        
+        Connection getConnection() throws IOException, TimeoutException {
+            if (connection == null || !connection.isOpen()) {
+                synchronized (this) {
+                    if (connection == null || !connection.isOpen()) {
+                        final String _connectionId = connectionId = OpflowUUID.getBase64ID();
+                        connection = factory.newConnection();
+                        connection.setId(_connectionId);
+                        connection.addBlockedListener(new BlockedListener() {
+                            private final OpflowLogTracer localLog = logTracer.copy();
 
-                        @Override
-                        public void handleBlocked(String reason) throws IOException {
-                            if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
-                                    .put("connectionId", producingConnectionId)
-                                    .text("Engine[${engineId}] producingConnection[${connectionId}] has been blocked")
-                                    .stringify());
-                            synchronized (producingBlockedListenerLock) {
-                                if (producingBlockedListener != null) {
-                                    producingBlockedListener.handleBlocked(reason);
+                            @Override
+                            public void handleBlocked(String reason) throws IOException {
+                                if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
+                                        .put("connectionId", _connectionId)
+                                        .text("Engine[${engineId}] producingConnection[${connectionId}] has been blocked")
+                                        .stringify());
+                                synchronized (producingBlockedListenerLock) {
+                                    if (producingBlockedListener != null) {
+                                        producingBlockedListener.handleBlocked(reason);
+                                    }
                                 }
                             }
-                        }
 
-                        @Override
-                        public void handleUnblocked() throws IOException {
-                            if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
-                                    .put("connectionId", producingConnectionId)
-                                    .text("Engine[${engineId}] producingConnection[${connectionId}] has been unblocked")
-                                    .stringify());
-                            synchronized (producingBlockedListenerLock) {
-                                if (producingBlockedListener != null) {
-                                    producingBlockedListener.handleUnblocked();
+                            @Override
+                            public void handleUnblocked() throws IOException {
+                                if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
+                                        .put("connectionId", _connectionId)
+                                        .text("Engine[${engineId}] producingConnection[${connectionId}] has been unblocked")
+                                        .stringify());
+                                synchronized (producingBlockedListenerLock) {
+                                    if (producingBlockedListener != null) {
+                                        producingBlockedListener.handleUnblocked();
+                                    }
                                 }
                             }
-                        }
-                    });
-                    producingConnection.addShutdownListener(new ShutdownListener() {
-                        private final OpflowLogTracer localLog = logTracer.copy();
-                        @Override
-                        public void shutdownCompleted(ShutdownSignalException sse) {
-                            if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
-                                    .put("connectionId", producingConnectionId)
-                                    .text("Engine[${engineId}] producingConnection[${connectionId}] has been shutdown")
-                                    .stringify());
-                        }
-                    });
+                        });
+                        connection.addShutdownListener(new ShutdownListener() {
+                            private final OpflowLogTracer localLog = logTracer.copy();
+                            @Override
+                            public void shutdownCompleted(ShutdownSignalException sse) {
+                                if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
+                                        .put("connectionId", _connectionId)
+                                        .text("Engine[${engineId}] producingConnection[${connectionId}] has been shutdown")
+                                        .stringify());
+                                fireRecoveryHandlers();
+                            }
+                        });
+                        watchRecovery(connection);
+                        if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
+                                .tags("sharedProducingConnectionCreated")
+                                .put("connectionIndex", index)
+                                .put("connectionId", _connectionId)
+                                .text("Engine[${engineId}] shared producingConnection[${connectionIndex}][${connectionId}] is created")
+                                .stringify(true));
+                        measurer.updateEngineConnection(owner, "producing", OpflowPromMeasurer.GaugeAction.INC);
+                    }
+                }
+            }
+            return connection;
+        }
+        
+        synchronized void close() {
+            try {
+                if (connection != null && connection.isOpen()) {
                     if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
-                            .tags("sharedProducingConnectionCreated")
-                            .put("connectionId", producingConnectionId)
-                            .text("Engine[${engineId}]shared producingConnection[${connectionId}] is created")
-                            .stringify(true));
-                    measurer.updateEngineConnection(owner, "producing", OpflowPromMeasurer.GaugeAction.INC);
+                            .tags("sharedProducingConnectionClosed")
+                            .put("connectionIndex", index)
+                            .text("Engine[${engineId}].close() shared producingConnection[${connectionIndex}] is closing")
+                            .stringify());
+                    connection.close();
                 }
+            } catch (IOException exception) {
+                if (logTracer.ready(LOG, Level.ERROR)) LOG.error(logTracer
+                        .put("connectionIndex", index)
+                        .text("Engine[${engineId}].close() has failed in closing the producingConnection[${connectionIndex}]")
+                        .stringify());
+            } finally {
+                connection = null;
             }
         }
-        return producingConnection;
     }
     
-    private Channel getProducingChannel() throws IOException, TimeoutException {
-        if (producingChannel == null || !producingChannel.isOpen()) {
-            synchronized (producingChannelLock) {
-                if (producingChannel == null || !producingChannel.isOpen()) {
-                    producingChannel = getProducingConnection().createChannel();
-                    producingChannel.addShutdownListener(new ShutdownListener() {
-                        private final OpflowLogTracer localLog = logTracer.copy();
-                        @Override
-                        public void shutdownCompleted(ShutdownSignalException sse) {
-                            if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
-                                    .put("channelNumber", producingChannel.getChannelNumber())
-                                    .text("Engine[${engineId}] producingChannel[${channelNumber}] has been shutdown")
-                                    .stringify());
+    private class ProducingChannel {
+        private final int index;
+        private final ProducingConnection producingConnection;
+        private final ReentrantLock publishLock = new ReentrantLock();
+        private final AtomicLong publishCount = new AtomicLong();
+        private final AtomicLong waitCount = new AtomicLong();
+        private final AtomicLong waitTime = new AtomicLong();
+        private volatile Channel channel;
+        private volatile ConfirmTracker confirmTracker;
+        
+        ProducingChannel(int index, ProducingConnection producingConnection) {
+            this.index = index;
+            this.producingConnection = producingConnection;
+        }
+        
+        Channel getChannel() throws IOException, TimeoutException {
+            if (channel == null || !channel.isOpen()) {
+                synchronized (this) {
+                    if (channel == null || !channel.isOpen()) {
+                        final Channel _channel = producingConnection.getConnection().createChannel();
+                        final ConfirmTracker _confirmTracker;
+                        if (producingConfirmEnabled) {
+                            _channel.confirmSelect();
+                            _confirmTracker = new ConfirmTracker();
+                            _channel.addConfirmListener(_confirmTracker);
+                        } else {
+                            _confirmTracker = null;
                         }
-                    });
+                        _channel.addShutdownListener(new ShutdownListener() {
+                            private final OpflowLogTracer localLog = logTracer.copy();
+                            @Override
+                            public void shutdownCompleted(ShutdownSignalException sse) {
+                                if (localLog.ready(LOG, Level.INFO)) LOG.info(localLog
+                                        .put("channelNumber", _channel.getChannelNumber())
+                                        .text("Engine[${engineId}] producingChannel[${channelNumber}] has been shutdown")
+                                        .stringify());
+                                if (_confirmTracker != null) {
+                                    _confirmTracker.abort(sse);
+                                }
+                            }
+                        });
+                        confirmTracker = _confirmTracker;
+                        channel = _channel;
+                        if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
+                                .tags("sharedProducingChannelCreated")
+                                .put("channelIndex", index)
+                                .put("channelNumber", _channel.getChannelNumber())
+                                .text("Engine[${engineId}] shared producingChannel[${channelIndex}][${channelNumber}] is created")
+                                .stringify());
+                    }
+                }
+            }
+            return channel;
+        }
+        
+        CompletableFuture<Boolean> publish(String exchange, String routingKey, AMQP.BasicProperties props, byte[] body) throws IOException, TimeoutException {
+            if (!publishLock.tryLock()) {
+                long startTime = System.nanoTime();
+                publishLock.lock();
+                waitCount.incrementAndGet();
+                waitTime.addAndGet(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+            }
+            try {
+                Channel _channel = getChannel();
+                if (_channel == null || !_channel.isOpen()) {
+                    throw new OpflowOperationException("Channel is null or has been closed");
+                }
+                ConfirmTracker _confirmTracker = confirmTracker;
+                if (_confirmTracker == null) {
+                    _channel.basicPublish(exchange, routingKey, props, body);
+                    publishCount.incrementAndGet();
+                    return CompletableFuture.completedFuture(Boolean.TRUE);
+                }
+                // the sequence number and the publish must not interleave with other threads
+                long deliveryTag = _channel.getNextPublishSeqNo();
+                CompletableFuture<Boolean> future = _confirmTracker.track(deliveryTag);
+                try {
+                    _channel.basicPublish(exchange, routingKey, props, body);
+                } catch (IOException exception) {
+                    _confirmTracker.untrack(deliveryTag);
+                    throw exception;
+                }
+                publishCount.incrementAndGet();
+                return future;
+            } finally {
+                publishLock.unlock();
+            }
+        }
+        
+        CompletableFuture<Boolean> publish(String exchange, String routingKey, List<AMQP.BasicProperties> propsList, List<byte[]> bodies) throws IOException, TimeoutException {
+            if (!publishLock.tryLock()) {
+                long startTime = System.nanoTime();
+                publishLock.lock();
+                waitCount.incrementAndGet();
+                waitTime.addAndGet(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+            }
+            try {
+                Channel _channel = getChannel();
+                if (_channel == null || !_channel.isOpen()) {
+                    throw new OpflowOperationException("Channel is null or has been closed");
+                }
+                ConfirmTracker _confirmTracker = confirmTracker;
+                if (_confirmTracker == null) {
+                    for (int i=0; i<bodies.size(); i++) {
+                        _channel.basicPublish(exchange, routingKey, propsList.get(i), bodies.get(i));
+                    }
+                    publishCount.addAndGet(bodies.size());
+                    return CompletableFuture.completedFuture(Boolean.TRUE);
+                }
+                final List<CompletableFuture<Boolean>> futures = new ArrayList<>(bodies.size());
+                for (int i=0; i<bodies.size(); i++) {
+                    long deliveryTag = _channel.getNextPublishSeqNo();
+                    CompletableFuture<Boolean> future = _confirmTracker.track(deliveryTag);
+                    try {
+                        _channel.basicPublish(exchange, routingKey, propsList.get(i), bodies.get(i));
+                    } catch (IOException exception) {
+                        _confirmTracker.untrack(deliveryTag);
+                        publishCount.addAndGet(futures.size());
+                        throw exception;
+                    }
+                    futures.add(future);
+                }
+                publishCount.addAndGet(bodies.size());
+                return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(new Function<Void, Boolean>() {
+                    @Override
+                    public Boolean apply(Void nothing) {
+                        for (CompletableFuture<Boolean> future: futures) {
+                            if (!Boolean.TRUE.equals(future.join())) {
+                                return Boolean.FALSE;
+                            }
+                        }
+                        return Boolean.TRUE;
+                    }
+                });
+            } finally {
+                publishLock.unlock();
+            }
+        }
+        
+        synchronized void close() {
+            try {
+                if (channel != null && channel.isOpen()) {
                     if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
-                            .tags("sharedProducingChannelCreated")
-                            .put("channelNumber", producingChannel.getChannelNumber())
-                            .text("Engine[${engineId}] shared producingChannel[${channelNumber}] is created")
+                            .tags("sharedProducingChannelClosed")
+                            .put("channelIndex", index)
+                            .text("Engine[${engineId}].close() shared producingChannel[${channelIndex}] is closing")
                             .stringify());
+                    channel.close();
+                }
+            } catch (IOException | TimeoutException exception) {
+                if (logTracer.ready(LOG, Level.ERROR)) LOG.error(logTracer
+                        .put("channelIndex", index)
+                        .text("Engine[${engineId}].close() has failed in closing the producingChannel[${channelIndex}]")
+                        .stringify());
+            } finally {
+                channel = null;
+            }
+        }
+        
+        Map<String, Object> toMap() {
+            ConfirmTracker _confirmTracker = confirmTracker;
+            return OpflowObjectTree.buildMap()
+                    .put("connectionIndex", producingConnection.index)
+                    .put("publishCount", publishCount.get())
+                    .put("waitCount", waitCount.get())
+                    .put("waitTime", waitTime.get())
+                    .put("outstandingConfirms", (_confirmTracker != null) ? _confirmTracker.outstanding.size() : 0, producingConfirmEnabled)
+                    .toMap();
+        }
+    }
+    
+    private class ConfirmTracker implements ConfirmListener {
+        // delivery tags are increasing, so a multiple ack/nack completes a head of the map
+        private final ConcurrentNavigableMap<Long, CompletableFuture<Boolean>> outstanding = new ConcurrentSkipListMap<>();
+        
+        CompletableFuture<Boolean> track(long deliveryTag) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            outstanding.put(deliveryTag, future);
+            return future;
+        }
+        
+        void untrack(long deliveryTag) {
+            outstanding.remove(deliveryTag);
+        }
+        
+        @Override
+        public void handleAck(long deliveryTag, boolean multiple) throws IOException {
+            complete(deliveryTag, multiple, Boolean.TRUE);
+        }
+        
+        @Override
+        public void handleNack(long deliveryTag, boolean multiple) throws IOException {
+            if (logTracer.ready(LOG, Level.WARN)) LOG.warn(logTracer
+                    .put("deliveryTag", deliveryTag)
+                    .put("multiple", multiple)
+                    .text("Engine[${engineId}] the broker has nacked the message(s) [${deliveryTag}], multiple: ${multiple}")
+                    .stringify());
+            complete(deliveryTag, multiple, Boolean.FALSE);
+        }
+        
+        void abort(Throwable cause) {
+            OpflowOperationException exception = new OpflowOperationException("Channel has been closed before the message was confirmed", cause);
+            while (!outstanding.isEmpty()) {
+                Map.Entry<Long, CompletableFuture<Boolean>> entry = outstanding.pollFirstEntry();
+                if (entry != null) {
+                    entry.getValue().completeExceptionally(exception);
+                }
+            }
+        }
+        
+        private void complete(long deliveryTag, boolean multiple, Boolean confirmed) {
+            if (multiple) {
+                ConcurrentNavigableMap<Long, CompletableFuture<Boolean>> confirmedTags = outstanding.headMap(deliveryTag, true);
+                for (Map.Entry<Long, CompletableFuture<Boolean>> entry : confirmedTags.entrySet()) {
+                    entry.getValue().complete(confirmed);
+                }
+                confirmedTags.clear();
+            } else {
+                CompletableFuture<Boolean> future = outstanding.remove(deliveryTag);
+                if (future != null) {
+                    future.complete(confirmed);
                 }
             }
         }
-        return producingChannel;
     }
     
     public void setProducingBlockedListener(BlockedListener producingBlockedListener) {
@@ -1218,8 +2018,10 @@ public class OpflowEngine implements AutoCloseable {
                                     .put("connectionId", consumingConnectionId)
                                     .text("Engine[${engineId}] consumingConnection[${connectionId}] has been shutdown")
                                     .stringify());
+                            fireRecoveryHandlers();
                         }
                     });
+                    watchRecovery(consumingConnection);
                     if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
                             .tags("sharedConsumingConnectionCreated")
                             .put("connectionId", consumingConnectionId)
@@ -1267,6 +2069,46 @@ public class OpflowEngine implements AutoCloseable {
         return consumingChannel;
     }
     
+    /**
+     * Registers a handler which is called whenever a shared connection is
+     * shutdown or automatically recovered, i.e. when the server-side state
+     * bound to the connection (exclusive queues, delivery tags) is lost.
+     */
+    public void addRecoveryHandler(Runnable handler) {
+        if (handler != null) {
+            recoveryHandlers.add(handler);
+        }
+    }
+    
+    private void fireRecoveryHandlers() {
+        for (Runnable handler : recoveryHandlers) {
+            try {
+                handler.run();
+            } catch (RuntimeException exception) {
+                if (logTracer.ready(LOG, Level.ERROR)) LOG.error(logTracer
+                        .put("exceptionClass", exception.getClass().getName())
+                        .put("exceptionMessage", exception.getMessage())
+                        .text("Engine[${engineId}] a recovery handler has failed: ${exceptionMessage}")
+                        .stringify());
+            }
+        }
+    }
+    
+    private void watchRecovery(Object connection) {
+        if (connection instanceof Recoverable) {
+            ((Recoverable) connection).addRecoveryListener(new RecoveryListener() {
+                @Override
+                public void handleRecovery(Recoverable recoverable) {
+                    fireRecoveryHandlers();
+                }
+                
+                @Override
+                public void handleRecoveryStarted(Recoverable recoverable) {
+                }
+            });
+        }
+    }
+    
     public void setConsumingBlockedListener(BlockedListener consumingBlockedListener) {
         synchronized (consumingBlockedListenerLock) {
             this.consumingBlockedListener = consumingBlockedListener;
@@ -1306,6 +2148,25 @@ public class OpflowEngine implements AutoCloseable {
                 Map<String, String> extras) throws IOException;
     }
     
+    /**
+     * A listener which settles the message later, e.g. from another thread,
+     * through the given acknowledger. It is only used with autoAck=false.
+     */
+    public interface DeferredListener extends Listener {
+        public void processMessage(
+                byte[] content,
+                AMQP.BasicProperties properties,
+                String queueName,
+                Channel channel,
+                String consumerTag,
+                Map<String, String> extras,
+                Acknowledger acknowledger) throws IOException;
+    }
+    
+    public interface Acknowledger {
+        public void ack(boolean success) throws IOException;
+    }
+    
     public static class Message {
 
         private final byte[] body;
@@ -5,7 +5,11 @@ import com.devebot.opflow.exception.OpflowOperationException;
 import com.rabbitmq.nostro.client.AMQP;
 import com.rabbitmq.nostro.client.Channel;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -14,9 +18,32 @@ import java.util.concurrent.TimeoutException;
  */
 public class OpflowExecutor {
     private final OpflowEngine engine;
+    // queues, exchanges and bindings which have already been asserted
+    private final Set<String> declaredTopology = ConcurrentHashMap.newKeySet();
     
     public OpflowExecutor(OpflowEngine engine) {
         this.engine = engine;
+        // the broker drops the exclusive and auto-delete queues with the connection
+        this.engine.addRecoveryHandler(new Runnable() {
+            @Override
+            public void run() {
+                resetTopologyCache();
+            }
+        });
+    }
+    
+    public void resetTopologyCache() {
+        declaredTopology.clear();
+    }
+    
+    public List<String> getDeclaredQueues() {
+        List<String> queueNames = new ArrayList<>();
+        for (String key : declaredTopology) {
+            if (key.startsWith(QUEUE_KEY_PREFIX)) {
+                queueNames.add(key.substring(QUEUE_KEY_PREFIX.length()));
+            }
+        }
+        return queueNames;
     }
     
     public void assertQueue(final String queueName) throws OpflowBootstrapException {
@@ -39,6 +66,13 @@ public class OpflowExecutor {
             Boolean autoDelete,
             Map<String, Object> options
     ) throws OpflowBootstrapException {
+        if (queueName == null || declaredTopology.contains(queueKey(queueName))) {
+            return;
+        }
+        // an exclusive queue belongs to the connection which consumes it, so only the consumer may declare it
+        if (Boolean.TRUE.equals(exclusive)) {
+            return;
+        }
         try {
             if (durable == null) durable = true;
             if (exclusive == null) exclusive = false;
@@ -72,6 +106,37 @@ public class OpflowExecutor {
             final Map<String, Object> options
     ) throws IOException, TimeoutException {
         if (queueName == null) return null;
+        if (exclusive || autoDelete) {
+            // a temporary connection, so that the management channel never owns an exclusive queue
+            return declareTransientQueue(queueName, durable, exclusive, autoDelete, options);
+        }
+        AMQP.Queue.DeclareOk declareOk;
+        try {
+            declareOk = engine.acquireManagementChannel(new OpflowEngine.Operator() {
+                @Override
+                public AMQP.Queue.DeclareOk handleEvent(Channel _channel) throws IOException {
+                    return _channel.queueDeclarePassive(queueName);
+                }
+            });
+        } catch (IOException e1) {
+            declareOk = engine.acquireManagementChannel(new OpflowEngine.Operator() {
+                @Override
+                public AMQP.Queue.DeclareOk handleEvent(Channel _channel) throws IOException {
+                    return _channel.queueDeclare(queueName, durable, exclusive, autoDelete, options);
+                }
+            });
+        }
+        declaredTopology.add(queueKey(queueName));
+        return declareOk;
+    }
+    
+    private AMQP.Queue.DeclareOk declareTransientQueue(
+            final String queueName,
+            final boolean durable,
+            final boolean exclusive,
+            final boolean autoDelete,
+            final Map<String, Object> options
+    ) throws IOException, TimeoutException {
         try {
             return engine.acquireChannel(new OpflowEngine.Operator() {
                 @Override
@@ -89,9 +154,22 @@ public class OpflowExecutor {
         }
     }
     
+    public AMQP.Queue.DeclareOk inspectQueue(final String queueName) {
+        try {
+            return engine.acquireManagementChannel(new OpflowEngine.Operator() {
+                @Override
+                public AMQP.Queue.DeclareOk handleEvent(Channel _channel) throws IOException {
+                    return _channel.queueDeclarePassive(queueName);
+                }
+            });
+        } catch (IOException | TimeoutException exception) {
+            throw new OpflowOperationException(exception);
+        }
+    }
+    
     public int countQueue(final String queueName) {
         try {
-            return engine.acquireChannel(new OpflowEngine.Operator() {
+            return engine.acquireManagementChannel(new OpflowEngine.Operator() {
                 @Override
                 public Integer handleEvent(Channel _channel) throws IOException {
                     AMQP.Queue.DeclareOk ok = _channel.queueDeclarePassive(queueName);
@@ -106,7 +184,7 @@ public class OpflowExecutor {
     public AMQP.Queue.PurgeOk purgeQueue(final String queueName) {
         if (queueName == null) return null;
         try {
-            return engine.acquireChannel(new OpflowEngine.Operator() {
+            return engine.acquireManagementChannel(new OpflowEngine.Operator() {
                 @Override
                 public AMQP.Queue.PurgeOk handleEvent(Channel _channel) throws IOException {
                     return _channel.queuePurge(queueName);
@@ -119,9 +197,10 @@ public class OpflowExecutor {
     
     public AMQP.Queue.DeleteOk deleteQueue(final String queueName) {
         try {
-            return engine.acquireChannel(new OpflowEngine.Operator() {
+            return engine.acquireManagementChannel(new OpflowEngine.Operator() {
                 @Override
                 public Object handleEvent(Channel channel) throws IOException {
+                    declaredTopology.remove(queueKey(queueName));
                     return channel.queueDelete(queueName, true, false);
                 }
             });
@@ -149,8 +228,9 @@ public class OpflowExecutor {
             final Map<String, Object> options
     ) throws IOException, TimeoutException {
         if (exchangeName == null) return null;
+        AMQP.Exchange.DeclareOk declareOk;
         try {
-            return engine.acquireChannel(new OpflowEngine.Operator() {
+            declareOk = engine.acquireManagementChannel(new OpflowEngine.Operator() {
                 @Override
                 public AMQP.Exchange.DeclareOk handleEvent(Channel _channel) throws IOException {
                     return _channel.exchangeDeclarePassive(exchangeName);
@@ -158,20 +238,23 @@ public class OpflowExecutor {
             });
         } catch (IOException e1) {
             final String _type = (exchangeType != null) ? exchangeType : "direct";
-            return engine.acquireChannel(new OpflowEngine.Operator() {
+            declareOk = engine.acquireManagementChannel(new OpflowEngine.Operator() {
                 @Override
                 public AMQP.Exchange.DeclareOk handleEvent(Channel _channel) throws IOException {
                     return _channel.exchangeDeclare(exchangeName, _type, durable, autoDelete, options);
                 }
             });
         }
+        declaredTopology.add(exchangeKey(exchangeName));
+        return declareOk;
     }
     
     public AMQP.Exchange.DeleteOk deleteExchange(final String exchangeName) {
         try {
-            return engine.acquireChannel(new OpflowEngine.Operator() {
+            return engine.acquireManagementChannel(new OpflowEngine.Operator() {
                 @Override
                 public Object handleEvent(Channel channel) throws IOException {
+                    declaredTopology.remove(exchangeKey(exchangeName));
                     return channel.exchangeDelete(exchangeName);
                 }
             });
@@ -185,14 +268,26 @@ public class OpflowExecutor {
     }
     
     public void bindExchange(final String exchangeName, final String[] bindingKeys, final String queueName) {
+        boolean bound = true;
+        for (String bindingKey : bindingKeys) {
+            bound = bound && declaredTopology.contains(bindingKey(exchangeName, bindingKey, queueName));
+        }
+        if (bound) {
+            return;
+        }
         try {
-            engine.acquireChannel(new OpflowEngine.Operator() {
+            engine.acquireManagementChannel(new OpflowEngine.Operator() {
                 @Override
                 public Object handleEvent(Channel channel) throws IOException {
-                    channel.exchangeDeclarePassive(exchangeName);
-                    channel.queueDeclarePassive(queueName);
+                    if (!declaredTopology.contains(exchangeKey(exchangeName))) {
+                        channel.exchangeDeclarePassive(exchangeName);
+                    }
+                    if (!declaredTopology.contains(queueKey(queueName))) {
+                        channel.queueDeclarePassive(queueName);
+                    }
                     for (String bindingKey : bindingKeys) {
                         channel.queueBind(queueName, exchangeName, bindingKey);
+                        declaredTopology.add(bindingKey(exchangeName, bindingKey, queueName));
                     }
                     return null;
                 }
@@ -201,4 +296,18 @@ public class OpflowExecutor {
             throw new OpflowOperationException(exception);
         }
     }
+    
+    private final static String QUEUE_KEY_PREFIX = "queue#";
+    
+    private static String queueKey(String queueName) {
+        return QUEUE_KEY_PREFIX + queueName;
+    }
+    
+    private static String exchangeKey(String exchangeName) {
+        return "exchange#" + exchangeName;
+    }
+    
+    private static String bindingKey(String exchangeName, String bindingKey, String queueName) {
+        return "binding#" + exchangeName + "#" + bindingKey + "#" + queueName;
+    }
 }
@@ -31,6 +31,10 @@ public abstract class OpflowPromMeasurer {
     public static final String LABEL_RPC_DIRECT_WORKER = "rpcOverNativeWorker";
     public static final String LABEL_RPC_REMOTE_AMQP_WORKER = "rpcOverRemoteAMQPWorkers";
     public static final String LABEL_RPC_REMOTE_HTTP_WORKER = "rpcOverRemoteHTTPWorkers";
+    public static final String LABEL_RPC_HEDGING = "rpcHedging";
+    public static final String LABEL_RPC_RESULT_CACHE = "rpcResultCache";
+    public static final String LABEL_RPC_CIRCUIT_BREAKER = "rpcCircuitBreaker";
+    public static final String LABEL_QUEUE_BACKLOG = "queueBacklog";
     
     public static enum GaugeAction { INC, DEC }
     
@@ -115,6 +119,13 @@ public abstract class OpflowPromMeasurer {
         private volatile long remoteHTTPSuccess = 0;
         private volatile long remoteHTTPFailure = 0;
         private volatile long remoteHTTPTimeout = 0;
+        // Hedged requests
+        private volatile long hedgingTotal = 0;
+        private volatile long hedgingWins = 0;
+        // Result cache
+        private volatile long cacheHits = 0;
+        private volatile long cacheMisses = 0;
+        private volatile long cacheEvictions = 0;
 
         private boolean publisherEnabled = false;
         private boolean nativeWorkerEnabled = false;
@@ -215,6 +226,26 @@ public abstract class OpflowPromMeasurer {
             this.remoteHTTPTimeout++;
         }
 
+        public synchronized void incHedgingTotal() {
+            this.hedgingTotal++;
+        }
+
+        public synchronized void incHedgingWins() {
+            this.hedgingWins++;
+        }
+
+        public synchronized void incCacheHit() {
+            this.cacheHits++;
+        }
+
+        public synchronized void incCacheMiss() {
+            this.cacheMisses++;
+        }
+
+        public synchronized void incCacheEviction() {
+            this.cacheEvictions++;
+        }
+
         private synchronized RpcInvocationCounter copy() {
             RpcInvocationCounter that = new RpcInvocationCounter();
             that.startTime = this.startTime;
@@ -242,6 +273,13 @@ public abstract class OpflowPromMeasurer {
             that.remoteHTTPSuccess = this.remoteHTTPSuccess;
             that.remoteHTTPFailure = this.remoteHTTPFailure;
             that.remoteHTTPTimeout = this.remoteHTTPTimeout;
+            // Hedged requests
+            that.hedgingTotal = this.hedgingTotal;
+            that.hedgingWins = this.hedgingWins;
+            // Result cache
+            that.cacheHits = this.cacheHits;
+            that.cacheMisses = this.cacheMisses;
+            that.cacheEvictions = this.cacheEvictions;
             return that;
         }
 
@@ -271,6 +309,13 @@ public abstract class OpflowPromMeasurer {
             this.remoteHTTPSuccess = 0;
             this.remoteHTTPFailure = 0;
             this.remoteHTTPTimeout = 0;
+            // Hedged requests
+            this.hedgingTotal = 0;
+            this.hedgingWins = 0;
+            // Result cache
+            this.cacheHits = 0;
+            this.cacheMisses = 0;
+            this.cacheEvictions = 0;
         }
 
         public Map<String, Object> toMap() {
@@ -360,6 +405,21 @@ public abstract class OpflowPromMeasurer {
                 }).toMap());
             }
             
+            if (that.hedgingTotal > 0) {
+                builder.put(LABEL_RPC_HEDGING, OpflowObjectTree.buildMap()
+                        .put("total", that.hedgingTotal)
+                        .put("wins", that.hedgingWins)
+                        .toMap());
+            }
+            
+            if (that.cacheHits + that.cacheMisses > 0) {
+                builder.put(LABEL_RPC_RESULT_CACHE, OpflowObjectTree.buildMap()
+                        .put("hit", that.cacheHits)
+                        .put("miss", that.cacheMisses)
+                        .put("evicted", that.cacheEvictions)
+                        .toMap());
+            }
+            
             if (nativeWorkerEnabled) {
                 builder.put(LABEL_RPC_DIRECT_WORKER, OpflowObjectTree.buildMap(new OpflowObjectTree.Listener<Object>() {
                     @Override
@@ -522,6 +582,29 @@ public abstract class OpflowPromMeasurer {
                                 break;
                         }
                         break;
+                    case OpflowConstant.METHOD_INVOCATION_FLOW_HEDGING:
+                        switch (status) {
+                            case OpflowConstant.METHOD_INVOCATION_STATUS_ENTER:
+                                counter.incHedgingTotal();
+                                break;
+                            case OpflowConstant.METHOD_INVOCATION_STATUS_OK:
+                                counter.incHedgingWins();
+                                break;
+                        }
+                        break;
+                    case OpflowConstant.METHOD_INVOCATION_FLOW_CACHE:
+                        switch (status) {
+                            case OpflowConstant.METHOD_INVOCATION_STATUS_HIT:
+                                counter.incCacheHit();
+                                break;
+                            case OpflowConstant.METHOD_INVOCATION_STATUS_MISS:
+                                counter.incCacheMiss();
+                                break;
+                            case OpflowConstant.METHOD_INVOCATION_STATUS_EVICTED:
+                                counter.incCacheEviction();
+                                break;
+                        }
+                        break;
                     case OpflowConstant.METHOD_INVOCATION_NATIVE_WORKER:
                         switch (status) {
                             case OpflowConstant.METHOD_INVOCATION_STATUS_RESCUE:
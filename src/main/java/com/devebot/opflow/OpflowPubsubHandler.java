@@ -14,6 +14,14 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,9 +44,23 @@ public class OpflowPubsubHandler implements AutoCloseable {
     private final String recyclebinName;
     private String[] bindingKeys;
     private int prefetchCount = 0;
+    private int consumerConcurrency = 1;
     private int subscriberLimit = 0;
     private int redeliveredLimit = 0;
+    private long redeliveredDelay = 0;
+    private long redeliveredMaxDelay = 60000;
+    private int redeliveredJitter = 20;
+    private long[] retryDelays;
     private OpflowPubsubListener listener;
+    private int partitionLanes = 0;
+    private String partitionKey;
+    private PartitionKeyExtractor partitionKeyExtractor;
+    private ExecutorService[] lanes;
+    private final AtomicInteger laneCursor = new AtomicInteger();
+    
+    public interface PartitionKeyExtractor {
+        Object extractKey(OpflowEngine.Message message);
+    }
 
     private final List<OpflowEngine.ConsumerInfo> consumerInfos = new LinkedList<>();
     private final boolean autorun;
@@ -106,12 +128,49 @@ public class OpflowPubsubHandler implements AutoCloseable {
         prefetchCount = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PUBSUB_PREFETCH_COUNT, 0);
         if (prefetchCount < 0) prefetchCount = 0;
         
+        consumerConcurrency = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PUBSUB_CONCURRENCY, 1);
+        if (consumerConcurrency < 1) consumerConcurrency = 1;
+        
         subscriberLimit = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PUBSUB_CONSUMER_LIMIT, 0);
         if (subscriberLimit < 0) subscriberLimit = 0;
         
         redeliveredLimit = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_LIMIT, 0);
         if (redeliveredLimit < 0) redeliveredLimit = 0;
         
+        redeliveredDelay = OpflowUtil.getLongField(params, OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_DELAY, 0l);
+        if (redeliveredDelay < 0) redeliveredDelay = 0;
+        
+        redeliveredMaxDelay = OpflowUtil.getLongField(params, OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_MAX_DELAY, 60000l);
+        if (redeliveredMaxDelay < redeliveredDelay) redeliveredMaxDelay = redeliveredDelay;
+        
+        redeliveredJitter = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PUBSUB_REDELIVERED_JITTER, 20);
+        if (redeliveredJitter < 0 || redeliveredJitter > 100) redeliveredJitter = 20;
+        
+        if (subscriberName != null && redeliveredLimit > 0 && redeliveredDelay > 0) {
+            retryDelays = new long[redeliveredLimit];
+            for (int i=0; i<redeliveredLimit; i++) {
+                // exponential backoff, capped by redeliveredMaxDelay
+                retryDelays[i] = (i < 32) ? Math.min(redeliveredMaxDelay, redeliveredDelay << i) : redeliveredMaxDelay;
+                if (retryDelays[i] <= 0) retryDelays[i] = redeliveredMaxDelay;
+                // every tier is a queue which dead-letters the expired messages back to the subscriber queue
+                executor.assertQueue(getRetryQueueName(retryDelays[i]), null, null, null, OpflowObjectTree.buildMap()
+                        .put("x-message-ttl", retryDelays[i])
+                        .put("x-dead-letter-exchange", "")
+                        .put("x-dead-letter-routing-key", subscriberName)
+                        .toMap());
+            }
+        }
+        
+        partitionLanes = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_PUBSUB_PARTITION_LANES, 0);
+        if (partitionLanes < 0) partitionLanes = 0;
+        
+        partitionKey = OpflowUtil.getStringField(params, OpflowConstant.OPFLOW_PUBSUB_PARTITION_KEY);
+        
+        // the lanes hold the unacked messages in memory, only the prefetch count bounds them
+        if (partitionLanes > 1 && prefetchCount <= 0) {
+            throw new OpflowBootstrapException("partitionLanes requires a positive prefetchCount");
+        }
+        
         autorun = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_COMMON_AUTORUN, Boolean.FALSE);
         
         if (autorun) {
@@ -123,8 +182,14 @@ public class OpflowPubsubHandler implements AutoCloseable {
                 .put("subscriberName", subscriberName)
                 .put("recyclebinName", recyclebinName)
                 .put("prefetchCount", prefetchCount)
+                .put("consumerConcurrency", consumerConcurrency)
                 .put("subscriberLimit", subscriberLimit)
                 .put("redeliveredLimit", redeliveredLimit)
+                .put("redeliveredDelay", redeliveredDelay)
+                .put("redeliveredMaxDelay", redeliveredMaxDelay)
+                .put("redeliveredJitter", redeliveredJitter)
+                .put("partitionLanes", partitionLanes)
+                .put("partitionKey", partitionKey)
                 .tags("PubsubHandler.new() parameters")
                 .text("PubsubHandler[${pubsubHandlerId}].new() parameters")
                 .stringify());
@@ -176,6 +241,65 @@ public class OpflowPubsubHandler implements AutoCloseable {
         }
     }
     
+    public void publish(List<OpflowEngine.Message> messages) {
+        publish(messages, null);
+    }
+    
+    /**
+     * Publishes a batch of messages with a single pass through the restrictor
+     * and a single lock of the producing channel. If the publisher confirms
+     * are enabled, this method waits once until the whole batch is confirmed.
+     */
+    public void publish(final List<OpflowEngine.Message> messages, final String routingKey) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        if (restrictor == null) {
+            _publish(messages, routingKey);
+            return;
+        }
+        try {
+            restrictor.filter(new OpflowRestrictor.Action<Object>() {
+                @Override
+                public Object process() throws Throwable {
+                    _publish(messages, routingKey);
+                    return null;
+                }
+            });
+        }
+        catch (OpflowOperationException | OpflowRestrictionException opflowException) {
+            throw opflowException;
+        }
+        catch (Throwable e) {
+            throw new OpflowNonOperatingException(e);
+        }
+    }
+    
+    private void _publish(List<OpflowEngine.Message> messages, String routingKey) {
+        OpflowLogTracer logPublish = null;
+        if (logTracer.ready(LOG, Level.INFO)) {
+            logPublish = logTracer.branch("batchId", OpflowUUID.getBase64ID());
+        }
+        
+        Map<String, Object> override = null;
+        if (routingKey != null) {
+            override = new HashMap<>();
+            override.put(OpflowConstant.OPFLOW_PRODUCING_ROUTING_KEY, routingKey);
+        }
+        
+        if (logPublish != null && logPublish.ready(LOG, Level.INFO)) LOG.info(logPublish
+                .put("batchSize", messages.size())
+                .put("routingKey", routingKey)
+                .text("Batch[${batchId}] - PubsubHandler[${pubsubHandlerId}].publish() a batch of ${batchSize} messages")
+                .stringify());
+        
+        awaitConfirm(engine.produce(messages, override, logPublish), "The broker has nacked some messages of the batch");
+        
+        if (logPublish != null && logPublish.ready(LOG, Level.INFO)) LOG.info(logPublish
+                .text("Batch[${batchId}] - PubsubHandler[${pubsubHandlerId}].publish() the batch has enqueued")
+                .stringify());
+    }
+    
     private void _publish(byte[] body, Map<String, Object> headers, String routingKey) {
         headers = OpflowObjectTree.ensureNonNull(headers);
         
@@ -200,13 +324,23 @@ public class OpflowPubsubHandler implements AutoCloseable {
                     .stringify());
         }
         
-        engine.produce(body, headers, override);
+        awaitConfirm(engine.produce(body, headers, override), "The broker has nacked the message");
         
         if (logPublish != null && logPublish.ready(LOG, Level.INFO)) LOG.info(logPublish
                 .text("Request[${requestId}][${requestTime}] - PubsubHandler[${pubsubHandlerId}].publish() request has enqueued")
                 .stringify());
     }
     
+    /**
+     * Subscribes with the key extractor which chooses the lane of a message
+     * when partitionLanes is greater than 1; messages with the same key are
+     * processed in order, messages with different keys run in parallel.
+     */
+    public OpflowEngine.ConsumerInfo subscribe(final OpflowPubsubListener newListener, final PartitionKeyExtractor keyExtractor) {
+        partitionKeyExtractor = keyExtractor;
+        return subscribe(newListener);
+    }
+    
     public OpflowEngine.ConsumerInfo subscribe(final OpflowPubsubListener newListener) {
         final String _consumerId = OpflowUUID.getBase64ID();
         final OpflowLogTracer logSubscribe = logTracer.branch("consumerId", _consumerId);
@@ -227,79 +361,96 @@ public class OpflowPubsubHandler implements AutoCloseable {
             throw new OpflowOperationException("PubsubHandler supports only single PubsubListener");
         }
         
-        OpflowEngine.ConsumerInfo consumer = engine.consume(new OpflowEngine.Listener() {
-            @Override
-            public boolean processMessage(
-                    byte[] content,
-                    AMQP.BasicProperties properties,
-                    String queueName,
-                    Channel channel,
-                    String consumerTag,
-                    Map<String, String> extras
-            ) throws IOException {
-                Map<String, Object> headers = properties.getHeaders();
-                String routineId = OpflowUtil.getRoutineId(headers, false);
-                String routineTimestamp = OpflowUtil.getRoutineTimestamp(headers, false);
-                OpflowLogTracer reqTracer = null;
-                if (logSubscribe.ready(LOG, Level.INFO)) {
-                    reqTracer = logSubscribe.branch(OpflowConstant.REQUEST_TIME, routineTimestamp).branch(OpflowConstant.REQUEST_ID, routineId);
-                }
-                if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                        .text("Request[${requestId}][${requestTime}] - Consumer[${consumerId}].subscribe() receives a new request")
-                        .stringify());
-                try {
-                    listener.processMessage(new OpflowEngine.Message(content, headers));
-                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                            .text("Request[${requestId}][${requestTime}] - subscribe() request processing has completed")
-                            .stringify());
-                } catch (Exception exception) {
-                    int redeliveredCount = 0;
-                    if (headers.get("redeliveredCount") instanceof Integer) {
-                        redeliveredCount = (Integer) headers.get("redeliveredCount");
-                    }
-                    redeliveredCount += 1;
-                    headers.put("redeliveredCount", redeliveredCount);
-                    
-                    AMQP.BasicProperties.Builder propBuilder = copyBasicProperties(properties);
-                    AMQP.BasicProperties props = propBuilder.headers(headers).build();
-                    
-                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                            .put("redeliveredCount", redeliveredCount)
-                            .put("redeliveredLimit", redeliveredLimit)
-                            .text("Request[${requestId}][${requestTime}] - subscribe() recycling failed request")
-                            .stringify());
-                    
-                    if (redeliveredCount <= redeliveredLimit) {
-                        if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                                .text("Request[${requestId}][${requestTime}] - subscribe() requeue failed request")
-                                .stringify());
-                        sendToQueue(content, props, subscriberName, channel);
-                    } else {
-                        if (recyclebinName != null) {
-                            sendToQueue(content, props, recyclebinName, channel);
-                            if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                                    .put("recyclebinName", recyclebinName)
-                                    .text("Request[${requestId}][${requestTime}] - subscribe() enqueue failed request to recyclebin")
-                                    .stringify());
-                        } else {
-                            if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
-                                    .text("Request[${requestId}][${requestTime}] - subscribe() discard failed request (recyclebin not found)")
-                                    .stringify());
-                        }
+        final OpflowEngine.Listener engineListener;
+        if (partitionLanes > 1) {
+            startLanes();
+            engineListener = new OpflowEngine.DeferredListener() {
+                @Override
+                public void processMessage(
+                        final byte[] content,
+                        final AMQP.BasicProperties properties,
+                        String queueName,
+                        Channel channel,
+                        String consumerTag,
+                        Map<String, String> extras,
+                        final OpflowEngine.Acknowledger acknowledger
+                ) throws IOException {
+                    ExecutorService lane = selectLane(new OpflowEngine.Message(content, properties.getHeaders()));
+                    try {
+                        lane.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                boolean success = false;
+                                try {
+                                    processDelivery(content, properties, logSubscribe);
+                                    success = true;
+                                } catch (Exception exception) {
+                                    if (logSubscribe.ready(LOG, Level.ERROR)) LOG.error(logSubscribe
+                                            .put("exceptionClass", exception.getClass().getName())
+                                            .put("exceptionMessage", exception.getMessage())
+                                            .text("Consumer[${consumerId}] - subscribe() lane processing has failed")
+                                            .stringify());
+                                } finally {
+                                    try {
+                                        acknowledger.ack(success);
+                                    } catch (IOException | RuntimeException exception) {
+                                        if (logSubscribe.ready(LOG, Level.ERROR)) LOG.error(logSubscribe
+                                                .put("exceptionClass", exception.getClass().getName())
+                                                .put("exceptionMessage", exception.getMessage())
+                                                .text("Consumer[${consumerId}] - subscribe() cannot acknowledge the message")
+                                                .stringify());
+                                    }
+                                }
+                            }
+                        });
+                    } catch (RejectedExecutionException exception) {
+                        acknowledger.ack(false);
                     }
                 }
-                return true;
-            }
-        }, OpflowObjectTree.buildMap(new OpflowObjectTree.Listener<Object>() {
+
+                @Override
+                public boolean processMessage(
+                        byte[] content,
+                        AMQP.BasicProperties properties,
+                        String queueName,
+                        Channel channel,
+                        String consumerTag,
+                        Map<String, String> extras
+                ) throws IOException {
+                    processDelivery(content, properties, logSubscribe);
+                    return true;
+                }
+            };
+        } else {
+            engineListener = new OpflowEngine.Listener() {
+                @Override
+                public boolean processMessage(
+                        byte[] content,
+                        AMQP.BasicProperties properties,
+                        String queueName,
+                        Channel channel,
+                        String consumerTag,
+                        Map<String, String> extras
+                ) throws IOException {
+                    processDelivery(content, properties, logSubscribe);
+                    return true;
+                }
+            };
+        }
+        
+        OpflowEngine.ConsumerInfo consumer = engine.consume(engineListener, OpflowObjectTree.buildMap(new OpflowObjectTree.Listener<Object>() {
             @Override
             public void transform(Map<String, Object> opts) {
                 opts.put(OpflowConstant.OPFLOW_PRODUCING_EXCHANGE_NAME, engine.getExchangeName());
                 opts.put(OpflowConstant.OPFLOW_PRODUCING_ROUTING_KEY, engine.getRoutingKey());
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_CONSUMER_ID, _consumerId);
-                opts.put(OpflowConstant.OPFLOW_CONSUMING_AUTO_ACK, Boolean.TRUE);
+                // the lanes ack a message once it has been processed, a rejected one is requeued
+                opts.put(OpflowConstant.OPFLOW_CONSUMING_AUTO_ACK, partitionLanes <= 1);
+                opts.put("requeueFailure", partitionLanes > 1);
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_QUEUE_NAME, subscriberName);
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_BINDING_KEYS, bindingKeys);
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_PREFETCH_COUNT, prefetchCount);
+                opts.put(OpflowConstant.OPFLOW_CONSUMING_CONCURRENCY, consumerConcurrency);
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_CONSUMER_LIMIT, subscriberLimit);
             }
         }).toMap());
@@ -310,6 +461,114 @@ public class OpflowPubsubHandler implements AutoCloseable {
         return consumer;
     }
     
+    private void processDelivery(byte[] content, AMQP.BasicProperties properties, OpflowLogTracer logSubscribe) throws IOException {
+        Map<String, Object> headers = properties.getHeaders();
+        String routineId = OpflowUtil.getRoutineId(headers, false);
+        String routineTimestamp = OpflowUtil.getRoutineTimestamp(headers, false);
+        OpflowLogTracer reqTracer = null;
+        if (logSubscribe.ready(LOG, Level.INFO)) {
+            reqTracer = logSubscribe.branch(OpflowConstant.REQUEST_TIME, routineTimestamp).branch(OpflowConstant.REQUEST_ID, routineId);
+        }
+        if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                .text("Request[${requestId}][${requestTime}] - Consumer[${consumerId}].subscribe() receives a new request")
+                .stringify());
+        try {
+            listener.processMessage(new OpflowEngine.Message(content, headers));
+            if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                    .text("Request[${requestId}][${requestTime}] - subscribe() request processing has completed")
+                    .stringify());
+        } catch (Exception exception) {
+            int redeliveredCount = 0;
+            if (headers.get("redeliveredCount") instanceof Integer) {
+                redeliveredCount = (Integer) headers.get("redeliveredCount");
+            }
+            redeliveredCount += 1;
+            headers.put("redeliveredCount", redeliveredCount);
+            
+            AMQP.BasicProperties.Builder propBuilder = copyBasicProperties(properties);
+            AMQP.BasicProperties props = propBuilder.headers(headers).build();
+            
+            if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                    .put("redeliveredCount", redeliveredCount)
+                    .put("redeliveredLimit", redeliveredLimit)
+                    .text("Request[${requestId}][${requestTime}] - subscribe() recycling failed request")
+                    .stringify());
+            
+            if (redeliveredCount <= redeliveredLimit) {
+                if (retryDelays != null) {
+                    long retryDelay = retryDelays[redeliveredCount - 1];
+                    long expiration = getJitteredDelay(retryDelay);
+                    props = propBuilder.expiration(String.valueOf(expiration)).build();
+                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                            .put("expiration", expiration)
+                            .text("Request[${requestId}][${requestTime}] - subscribe() delay failed request in ${expiration}ms")
+                            .stringify());
+                    sendToQueue(content, props, getRetryQueueName(retryDelay));
+                } else {
+                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                            .text("Request[${requestId}][${requestTime}] - subscribe() requeue failed request")
+                            .stringify());
+                    sendToQueue(content, props, subscriberName);
+                }
+            } else {
+                if (recyclebinName != null) {
+                    sendToQueue(content, props, recyclebinName);
+                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                            .put("recyclebinName", recyclebinName)
+                            .text("Request[${requestId}][${requestTime}] - subscribe() enqueue failed request to recyclebin")
+                            .stringify());
+                } else {
+                    if (reqTracer != null && reqTracer.ready(LOG, Level.INFO)) LOG.info(reqTracer
+                            .text("Request[${requestId}][${requestTime}] - subscribe() discard failed request (recyclebin not found)")
+                            .stringify());
+                }
+            }
+        }
+    }
+    
+    private synchronized void startLanes() {
+        if (lanes != null) {
+            return;
+        }
+        lanes = new ExecutorService[partitionLanes];
+        for (int i=0; i<partitionLanes; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor();
+        }
+    }
+    
+    private ExecutorService selectLane(OpflowEngine.Message message) {
+        Object key = null;
+        if (partitionKeyExtractor != null) {
+            key = partitionKeyExtractor.extractKey(message);
+        } else if (partitionKey != null && message.getHeaders() != null) {
+            key = message.getHeaders().get(partitionKey);
+        }
+        if (key == null) {
+            // messages without a key have no ordering constraint
+            return lanes[(laneCursor.getAndIncrement() & Integer.MAX_VALUE) % lanes.length];
+        }
+        return lanes[(key.toString().hashCode() & Integer.MAX_VALUE) % lanes.length];
+    }
+    
+    private synchronized void stopLanes() {
+        if (lanes == null) {
+            return;
+        }
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            try {
+                if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException ie) {
+                lane.shutdownNow();
+            }
+        }
+        lanes = null;
+    }
+    
     public final void serve() {
         if (restrictor != null) {
             restrictor.unblock();
@@ -332,6 +591,7 @@ public class OpflowPubsubHandler implements AutoCloseable {
                     }
                 }
                 consumerInfos.clear();
+                stopLanes();
                 engine.close();
             }
             if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
@@ -377,6 +637,10 @@ public class OpflowPubsubHandler implements AutoCloseable {
         return prefetchCount;
     }
 
+    public int getConsumerConcurrency() {
+        return consumerConcurrency;
+    }
+
     public String getSubscriberName() {
         return subscriberName;
     }
@@ -389,15 +653,63 @@ public class OpflowPubsubHandler implements AutoCloseable {
         return recyclebinName;
     }
 
+    public int getPartitionLanes() {
+        return partitionLanes;
+    }
+
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
     public int getRedeliveredLimit() {
         return redeliveredLimit;
     }
+
+    public long getRedeliveredDelay() {
+        return redeliveredDelay;
+    }
+
+    public long getRedeliveredMaxDelay() {
+        return redeliveredMaxDelay;
+    }
+
+    public int getRedeliveredJitter() {
+        return redeliveredJitter;
+    }
+    
+    private String getRetryQueueName(long delay) {
+        return subscriberName + "-retry-" + delay;
+    }
     
-    private void sendToQueue(byte[] data, AMQP.BasicProperties replyProps, String queueName, Channel channel) {
+    private long getJitteredDelay(long delay) {
+        // the jitter only shortens the delay, so it never exceeds the TTL of the retry queue
+        long range = delay * redeliveredJitter / 100;
+        if (range <= 0) {
+            return delay;
+        }
+        return delay - ThreadLocalRandom.current().nextLong(range + 1);
+    }
+    
+    private void sendToQueue(byte[] data, AMQP.BasicProperties replyProps, String queueName) {
+        // the consumer channel is not shared with the lane threads, the producing channels are
+        awaitConfirm(engine.produce("", queueName, replyProps, data), "The broker has nacked the message sent to the queue[" + queueName + "]");
+    }
+    
+    private void awaitConfirm(CompletableFuture<Boolean> confirmed, String nackedMessage) {
+        if (!engine.isProducingConfirmEnabled()) {
+            return;
+        }
+        Boolean ok;
         try {
-            channel.basicPublish("", queueName, replyProps, data);
-        } catch (IOException exception) {
+            ok = confirmed.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
             throw new OpflowOperationException(exception);
+        } catch (ExecutionException exception) {
+            throw new OpflowOperationException(exception.getCause());
+        }
+        if (!Boolean.TRUE.equals(ok)) {
+            throw new OpflowOperationException(nackedMessage);
         }
     }
     
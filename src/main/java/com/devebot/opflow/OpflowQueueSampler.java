@@ -0,0 +1,220 @@
+package com.devebot.opflow;
+
+import com.devebot.opflow.OpflowLogTracer.Level;
+import com.devebot.opflow.supports.OpflowObjectTree;
+import com.rabbitmq.nostro.client.AMQP;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author acegik
+ */
+public class OpflowQueueSampler implements AutoCloseable {
+    public final static long DEFAULT_INTERVAL = 10000;
+
+    private final static Logger LOG = LoggerFactory.getLogger(OpflowQueueSampler.class);
+
+    private final String componentId;
+    private final OpflowLogTracer logTracer;
+    private final boolean enabled;
+    private final long interval;
+    private final Timer timer = new Timer("Timer-" + OpflowQueueSampler.class.getSimpleName(), true);
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, Sample> samples = new ConcurrentHashMap<>();
+    private long count = 0;
+
+    public interface Counter {
+        long getCount();
+    }
+
+    public OpflowQueueSampler(Map<String, Object> kwargs) {
+        kwargs = OpflowObjectTree.ensureNonNull(kwargs);
+        componentId = OpflowUtil.getStringField(kwargs, OpflowConstant.COMPONENT_ID, true);
+        enabled = OpflowUtil.getBooleanField(kwargs, OpflowConstant.OPFLOW_COMMON_ENABLED, Boolean.TRUE);
+        interval = OpflowUtil.getLongField(kwargs, OpflowConstant.OPFLOW_COMMON_INTERVAL, DEFAULT_INTERVAL);
+        logTracer = OpflowLogTracer.ROOT.branch("queueSamplerId", componentId);
+    }
+
+    /**
+     * Samples every queue which has been asserted through the executor.
+     */
+    public void register(OpflowExecutor executor) {
+        register(executor, null, null);
+    }
+
+    /**
+     * Samples the given queue as well. The arrivals counter, if any, returns
+     * the number of messages this process has published into the queue and
+     * is used to split the depth change into arrival and drain rates.
+     */
+    public void register(OpflowExecutor executor, String queueName, Counter arrivals) {
+        if (executor != null) {
+            sources.add(new Source(executor, queueName, arrivals));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public void serve() {
+        if (!enabled || interval <= 0) {
+            if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                    .put("interval", interval)
+                    .text("QueueSampler[${queueSamplerId}] is disabled, interval: ${interval}")
+                    .stringify());
+            return;
+        }
+        timer.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, interval, interval);
+        if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                .put("interval", interval)
+                .text("QueueSampler[${queueSamplerId}] has been started with interval: ${interval}")
+                .stringify());
+    }
+
+    public void sample() {
+        synchronized (this) {
+            count++;
+        }
+        for (Source source : sources) {
+            Set<String> queueNames = new LinkedHashSet<>(source.executor.getDeclaredQueues());
+            if (source.queueName != null) {
+                queueNames.add(source.queueName);
+            }
+            for (String queueName : queueNames) {
+                try {
+                    AMQP.Queue.DeclareOk declareOk = source.executor.inspectQueue(queueName);
+                    Long arrivals = null;
+                    if (source.arrivals != null && queueName.equals(source.queueName)) {
+                        arrivals = source.arrivals.getCount();
+                    }
+                    getSample(queueName).update(declareOk.getMessageCount(), declareOk.getConsumerCount(), arrivals);
+                } catch (Exception exception) {
+                    if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                            .put("queueName", queueName)
+                            .put("exceptionClass", exception.getClass().getName())
+                            .put("exceptionMessage", exception.getMessage())
+                            .text("QueueSampler[${queueSamplerId}] cannot inspect the queue[${queueName}]: ${exceptionMessage}")
+                            .stringify());
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getQueueStats() {
+        OpflowObjectTree.Builder<Object> queues = OpflowObjectTree.buildMap();
+        for (Map.Entry<String, Sample> entry : samples.entrySet()) {
+            queues.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return queues.toMap();
+    }
+
+    public Map<String, Object> toMap() {
+        return OpflowObjectTree.buildMap()
+                .put(OpflowConstant.COMPONENT_ID, componentId)
+                .put(OpflowConstant.OPFLOW_COMMON_ENABLED, enabled)
+                .put(OpflowConstant.OPFLOW_COMMON_INTERVAL, interval)
+                .put(OpflowConstant.OPFLOW_COMMON_COUNT, getCount())
+                .put("queues", getQueueStats())
+                .toMap();
+    }
+
+    @Override
+    public void close() {
+        timer.cancel();
+        timer.purge();
+    }
+
+    private Sample getSample(String queueName) {
+        Sample sample = samples.get(queueName);
+        if (sample == null) {
+            Sample created = new Sample();
+            sample = samples.putIfAbsent(queueName, created);
+            if (sample == null) {
+                sample = created;
+            }
+        }
+        return sample;
+    }
+
+    private static class Source {
+        private final OpflowExecutor executor;
+        private final String queueName;
+        private final Counter arrivals;
+
+        Source(OpflowExecutor executor, String queueName, Counter arrivals) {
+            this.executor = executor;
+            this.queueName = queueName;
+            this.arrivals = arrivals;
+        }
+    }
+
+    private static class Sample {
+        private long sampledTime = 0;
+        private int messageCount = 0;
+        private int consumerCount = 0;
+        private Long arrivalTotal = null;
+        private double growthRate = 0;
+        private Double arrivalRate = null;
+        private Double drainRate = null;
+
+        synchronized void update(int depth, int consumers, Long arrivals) {
+            long now = System.currentTimeMillis();
+            if (sampledTime > 0 && now > sampledTime) {
+                double seconds = (now - sampledTime) / 1000.0;
+                growthRate = (depth - messageCount) / seconds;
+                if (arrivals != null && arrivalTotal != null) {
+                    arrivalRate = Math.max(0, arrivals - arrivalTotal) / seconds;
+                    // whatever has arrived but did not stay in the queue has been drained
+                    drainRate = Math.max(0, arrivalRate - growthRate);
+                } else {
+                    arrivalRate = null;
+                    drainRate = null;
+                }
+            }
+            sampledTime = now;
+            messageCount = depth;
+            consumerCount = consumers;
+            arrivalTotal = arrivals;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Long lagTime = null;
+            if (drainRate != null && drainRate > 0) {
+                lagTime = Math.round(messageCount * 1000 / drainRate);
+            }
+            return OpflowObjectTree.buildMap()
+                    .put("messageCount", messageCount)
+                    .put("consumerCount", consumerCount)
+                    .put("growthRate", growthRate)
+                    .put("arrivalRate", arrivalRate, arrivalRate != null)
+                    .put("drainRate", drainRate, drainRate != null)
+                    .put("lagTime", lagTime, lagTime != null)
+                    .put("sampledTime", sampledTime)
+                    .toMap();
+        }
+    }
+}
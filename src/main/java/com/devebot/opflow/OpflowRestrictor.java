@@ -10,6 +10,7 @@ import com.devebot.opflow.supports.OpflowObjectTree;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -17,6 +18,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -481,29 +483,42 @@ public class OpflowRestrictor {
             try {
                 if (semaphoreTimeout > 0) {
                     if (semaphore.tryAcquire(semaphoreTimeout, TimeUnit.MILLISECONDS)) {
-                        try {
-                            return action.process();
-                        }
-                        finally {
-                            semaphore.release();
-                        }
+                        return processAndRelease(action);
                     } else {
                         throw new OpflowSemaphoreTimeoutException("There are no permits available");
                     }
                 } else {
                     semaphore.acquire();
-                    try {
-                        return action.process();
-                    }
-                    finally {
-                        semaphore.release();
-                    }
+                    return processAndRelease(action);
                 }
             }
             catch (InterruptedException exception) {
                 throw new OpflowSemaphoreTimeoutException("semaphore.acquire() is interrupted", exception);
             }
         }
+        
+        private <T> T processAndRelease(OpflowRestrictable.Action<T> action) throws Throwable {
+            boolean deferred = false;
+            try {
+                T result = action.process();
+                if (result instanceof CompletableFuture) {
+                    // an asynchronous call holds its permit until the future completes
+                    deferred = true;
+                    ((CompletableFuture<?>) result).whenComplete(new BiConsumer<Object, Throwable>() {
+                        @Override
+                        public void accept(Object value, Throwable error) {
+                            semaphore.release();
+                        }
+                    });
+                }
+                return result;
+            }
+            finally {
+                if (!deferred) {
+                    semaphore.release();
+                }
+            }
+        }
     }
     
     public static class Cache extends Filter {
@@ -0,0 +1,165 @@
+package com.devebot.opflow;
+
+import com.devebot.opflow.OpflowLogTracer.Level;
+import com.devebot.opflow.supports.OpflowObjectTree;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author acegik
+ */
+public class OpflowResultCache {
+    private final static Logger LOG = LoggerFactory.getLogger(OpflowResultCache.class);
+
+    private final static int DEFAULT_MAX_SIZE = 1000;
+    private final static int SEGMENT_TOTAL = 16;
+
+    private final String componentId;
+    private final OpflowLogTracer logTracer;
+    private final OpflowPromMeasurer measurer;
+    private final int maxSize;
+    private final Segment[] segments;
+
+    private final AtomicLong hitTotal = new AtomicLong();
+    private final AtomicLong missTotal = new AtomicLong();
+    private final AtomicLong evictionTotal = new AtomicLong();
+    private final AtomicLong expirationTotal = new AtomicLong();
+
+    public OpflowResultCache(Map<String, Object> kwargs) {
+        kwargs = OpflowObjectTree.ensureNonNull(kwargs);
+        componentId = OpflowUtil.getStringField(kwargs, OpflowConstant.COMPONENT_ID, true);
+        measurer = (OpflowPromMeasurer) OpflowUtil.getOptionField(kwargs, OpflowConstant.COMP_MEASURER, OpflowPromMeasurer.NULL);
+        logTracer = OpflowLogTracer.ROOT.branch("resultCacheId", componentId);
+
+        Integer _maxSize = OpflowUtil.getIntegerField(kwargs, OpflowConstant.OPFLOW_RESULT_CACHE_MAX_SIZE, DEFAULT_MAX_SIZE);
+        maxSize = (_maxSize != null && _maxSize > 0) ? _maxSize : DEFAULT_MAX_SIZE;
+
+        // each segment has its own lock and evicts its own least recently used entries
+        int segmentTotal = Math.min(SEGMENT_TOTAL, maxSize);
+        segments = new Segment[segmentTotal];
+        for (int i = 0; i < segmentTotal; i++) {
+            segments[i] = new Segment(maxSize / segmentTotal + (i < maxSize % segmentTotal ? 1 : 0));
+        }
+
+        if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                .put("maxSize", maxSize)
+                .text("ResultCache[${resultCacheId}] has been created with maxSize: ${maxSize}")
+                .stringify());
+    }
+
+    public String getComponentId() {
+        return componentId;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String get(String routineSignature, String body) {
+        String key = buildKey(routineSignature, body);
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && entry.expiredTime < System.currentTimeMillis()) {
+                segment.remove(key);
+                expirationTotal.incrementAndGet();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missTotal.incrementAndGet();
+            measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_FLOW_CACHE,
+                    routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_MISS);
+            return null;
+        }
+        hitTotal.incrementAndGet();
+        measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_FLOW_CACHE,
+                routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_HIT);
+        return entry.value;
+    }
+
+    public void put(String routineSignature, String body, String value, long ttl) {
+        if (value == null || ttl <= 0) return;
+        String key = buildKey(routineSignature, body);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new Entry(routineSignature, value, System.currentTimeMillis() + ttl));
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                .text("ResultCache[${resultCacheId}].clear()")
+                .stringify());
+    }
+
+    public Map<String, Object> toMap() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return OpflowObjectTree.buildMap()
+                .put(OpflowConstant.COMPONENT_ID, componentId)
+                .put(OpflowConstant.OPFLOW_RESULT_CACHE_MAX_SIZE, maxSize)
+                .put("size", size)
+                .put("hits", hitTotal.get())
+                .put("misses", missTotal.get())
+                .put("evictions", evictionTotal.get())
+                .put("expirations", expirationTotal.get())
+                .toMap();
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[(hash & 0x7fffffff) % segments.length];
+    }
+
+    private static String buildKey(String routineSignature, String body) {
+        return routineSignature + "#" + body;
+    }
+
+    private class Segment extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                evictionTotal.incrementAndGet();
+                measurer.countRpcInvocation(OpflowConstant.COMP_COMMANDER, OpflowConstant.METHOD_INVOCATION_FLOW_CACHE,
+                        eldest.getValue().routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_EVICTED);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static class Entry {
+        private final String routineSignature;
+        private final String value;
+        private final long expiredTime;
+
+        Entry(String routineSignature, String value, long expiredTime) {
+            this.routineSignature = routineSignature;
+            this.value = value;
+            this.expiredTime = expiredTime;
+        }
+    }
+}
@@ -15,6 +15,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -30,6 +32,7 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
     private final static Logger LOG = LoggerFactory.getLogger(OpflowRpcAmqpMaster.class);
 
     private final static long TIMEOUT_DELAY = 1000;
+    private final static int TIMEOUT_WHEEL_SIZE = 512;
     private final static int PREFETCH_NUM = 1;
     private final static int CONSUMER_MAX = 1;
     
@@ -54,11 +57,14 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
     private final Boolean responseQueueExclusive;
     private final Boolean responseQueueAutoDelete;
     private final Integer responsePrefetchCount;
+    private final boolean responseDirectReplyTo;
+    private final String dispatchQueueName;
     
     private final boolean monitorEnabled;
     private final String monitorId;
     private final int monitorInterval;
     private final long monitorTimeout;
+    private final long monitorTick;
     
     private final boolean autorun;
     
@@ -132,13 +138,22 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
         responseQueueExclusive = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_RESPONSE_QUEUE_EXCLUSIVE, responseQueueSuffix != null ? true : null);
         responseQueueAutoDelete = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_RESPONSE_QUEUE_AUTO_DELETE, responseQueueSuffix != null ? true : null);
         responsePrefetchCount = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_RESPONSE_PREFETCH_COUNT, PREFETCH_NUM);
+        responseDirectReplyTo = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_RESPONSE_DIRECT_REPLY_TO, Boolean.FALSE);
         
-        if (responseQueueName != null) {
+        if (responseDirectReplyTo && (engine.isProducingConfirmEnabled() || engine.getProducingChannelTotal() > 1)) {
+            if (logTracer.ready(LOG, Level.WARN)) LOG.warn(logTracer
+                    .put("producingChannelTotal", engine.getProducingChannelTotal())
+                    .put("producingConfirmEnabled", engine.isProducingConfirmEnabled())
+                    .text("amqpMaster[${amqpMasterId}] directReplyTo publishes the requests on the callback consumer channel, the producing channels and the publisher confirms are not used for them")
+                    .stringify());
+        }
+        
+        if (responseQueueName != null && !responseDirectReplyTo) {
             executor.assertQueue(responseQueueName, responseQueueDurable, responseQueueExclusive, responseQueueAutoDelete);
         }
         
         // Auto-binding section
-        String _dispatchQueueName = OpflowUtil.getStringField(params, OpflowConstant.OPFLOW_INCOMING_QUEUE_NAME);
+        String _dispatchQueueName = dispatchQueueName = OpflowUtil.getStringField(params, OpflowConstant.OPFLOW_INCOMING_QUEUE_NAME);
         if (_dispatchQueueName != null) {
             Boolean _dispatchQueueDurable = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_INCOMING_QUEUE_DURABLE, null);
             Boolean _dispatchQueueExclusive = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_INCOMING_QUEUE_EXCLUSIVE, null);
@@ -152,6 +167,8 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
         monitorId = OpflowUtil.getStringField(params, OpflowConstant.OPFLOW_RPC_MONITOR_ID, componentId);
         monitorInterval = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_RPC_MONITOR_INTERVAL, 14000); // can run 2-3 times in 30s
         monitorTimeout = OpflowUtil.getLongField(params, OpflowConstant.OPFLOW_RPC_MONITOR_TIMEOUT, 0l);
+        // a positive tick replaces the periodic scan of the tasks with a hashed wheel timer
+        monitorTick = OpflowUtil.getLongField(params, OpflowConstant.OPFLOW_RPC_MONITOR_TICK, 100l);
         
         // Autorun section
         autorun = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_COMMON_AUTORUN, Boolean.FALSE);
@@ -163,10 +180,12 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
                 .put("responseExclusive", responseQueueExclusive)
                 .put("responseAutoDelete", responseQueueAutoDelete)
                 .put("prefetchCount", responsePrefetchCount)
+                .put("directReplyTo", responseDirectReplyTo)
                 .put("monitorId", monitorId)
                 .put("monitorEnabled", monitorEnabled)
                 .put("monitorInterval", monitorInterval)
                 .put("monitorTimeout", monitorTimeout)
+                .put("monitorTick", monitorTick)
                 .tags("RpcAmqpMaster.new() parameters")
                 .text("amqpMaster[${amqpMasterId}].new() parameters")
                 .stringify());
@@ -256,7 +275,11 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
             @Override
             public void transform(Map<String, Object> opts) {
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_CONSUMER_ID, _consumerId);
-                if (!isTransient) {
+                if (responseDirectReplyTo) {
+                    opts.put(OpflowConstant.OPFLOW_CONSUMING_QUEUE_NAME, OpflowConstant.AMQP_DIRECT_REPLY_TO_QUEUE);
+                    // the requests are published on this channel, so it is not shared with the other consumers
+                    opts.put("forceNewChannel", Boolean.TRUE);
+                } else if (!isTransient) {
                     opts.put(OpflowConstant.OPFLOW_CONSUMING_QUEUE_NAME, responseQueueName);
                     opts.put(OpflowConstant.OPFLOW_CONSUMING_QUEUE_DURABLE, responseQueueDurable);
                     opts.put(OpflowConstant.OPFLOW_CONSUMING_QUEUE_EXCLUSIVE, responseQueueExclusive);
@@ -281,9 +304,20 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
     private final Object timeoutMonitorLock = new Object();
     private OpflowTimeout.Monitor timeoutMonitor = null;
     
+    private OpflowTimeout.Wheel timeoutWheel = null;
+    
+    private OpflowTimeout.Wheel initTimeoutWheel() {
+        OpflowTimeout.Wheel wheel = null;
+        if (monitorEnabled && monitorTick > 0) {
+            wheel = new OpflowTimeout.Wheel(monitorTick, TIMEOUT_WHEEL_SIZE, monitorId);
+            wheel.serve();
+        }
+        return wheel;
+    }
+    
     private OpflowTimeout.Monitor initTimeoutMonitor() {
         OpflowTimeout.Monitor monitor = null;
-        if (monitorEnabled) {
+        if (monitorEnabled && monitorTick <= 0) {
             monitor = new OpflowTimeout.Monitor(tasks, monitorInterval, monitorTimeout, monitorId);
             monitor.serve();
         }
@@ -355,16 +389,19 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
         final OpflowLogTracer reqTracer = logTracer.branch(OpflowConstant.REQUEST_TIME, params.getRoutineTimestamp())
                 .branch(OpflowConstant.REQUEST_ID, params.getRoutineId(), params);
         
-        if (timeoutMonitor == null) {
+        if (timeoutMonitor == null && timeoutWheel == null) {
             synchronized (timeoutMonitorLock) {
-                if (timeoutMonitor == null) {
+                if (timeoutMonitor == null && timeoutWheel == null) {
+                    timeoutWheel = initTimeoutWheel();
                     timeoutMonitor = initTimeoutMonitor();
                 }
             }
         }
         
+        // the direct reply-to consumer is shared by all the requests, including the forked ones
+        final boolean isTransient = params.getCallbackTransient() && !responseDirectReplyTo;
         final OpflowEngine.ConsumerInfo consumerInfo;
-        if (params.getCallbackTransient()) {
+        if (isTransient) {
             consumerInfo = initCallbackConsumer(true);
         } else {
             if (callbackConsumer == null) {
@@ -377,8 +414,13 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
             consumerInfo = callbackConsumer;
         }
         
+        // without progress messages the request waits for a single completed/failed message,
+        // the progress is always kept when the caller has asked for it explicitly
+        final boolean singleResponse = !Boolean.TRUE.equals(params.getProgressEnabled())
+                && (responsePrefetchCount > 1 || Boolean.FALSE.equals(params.getProgressEnabled()));
+        
         final String taskId = OpflowUUID.getBase64ID();
-        OpflowRpcAmqpRequest task = new OpflowRpcAmqpRequest(params, new OpflowTimeout.Listener() {
+        final OpflowRpcAmqpRequest task = new OpflowRpcAmqpRequest(params, new OpflowTimeout.Listener() {
             private OpflowLogTracer logTask = null;
             
             {
@@ -393,7 +435,7 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
                 eventLock.lock();
                 try {
                     tasks.remove(taskId);
-                    if (params.getCallbackTransient()) {
+                    if (isTransient) {
                         engine.cancelConsumer(consumerInfo);
                     }
                     if (tasks.isEmpty()) {
@@ -420,15 +462,20 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
                     eventLock.unlock();
                 }
             }
-        });
+        }, singleResponse);
         tasks.put(taskId, task);
         
+        if (timeoutWheel != null) {
+            task.setTimeoutHandle(timeoutWheel.schedule(task, monitorTimeout));
+        }
+        
         Map<String, Object> headers = new HashMap<>();
         OpflowUtil.setRoutineId(headers, task.getRoutineId());
         OpflowUtil.setRoutineTimestamp(headers, task.getRoutineTimestamp());
         OpflowUtil.setRoutineSignature(headers, task.getRoutineSignature());
         OpflowUtil.setRoutineScope(headers, params.getRoutineScope());
         OpflowUtil.setRoutineTags(headers, params.getRoutineTags());
+        OpflowUtil.setRoutineDeadline(headers, getRoutineDeadline(params));
 
         if (responsePrefetchCount > 1) {
             OpflowUtil.setProgressEnabled(headers, Boolean.FALSE);
@@ -452,11 +499,45 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
         
         measurer.countRpcInvocation(OpflowConstant.COMP_RPC_AMQP_MASTER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "produce");
         
-        engine.produce(body, headers, builder, null, reqTracer);
+        CompletableFuture<Boolean> confirmed = engine.produce(body, headers, builder, null, reqTracer, responseDirectReplyTo ? consumerInfo : null);
+        
+        // a nacked or lost request fails at once instead of waiting for its timeout
+        if (engine.isProducingConfirmEnabled()) {
+            confirmed.whenComplete(new BiConsumer<Boolean, Throwable>() {
+                @Override
+                public void accept(Boolean ok, Throwable error) {
+                    if (error == null && Boolean.TRUE.equals(ok)) {
+                        return;
+                    }
+                    String message = (error != null) ? error.getMessage() : "The broker has nacked the request";
+                    if (reqTracer != null && reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                            .put("reason", message)
+                            .text("Request[${requestId}][${requestTime}][x-rpc-master-unconfirmed] - the request has not been confirmed: ${reason}")
+                            .stringify());
+                    task.push(new OpflowEngine.Message(OpflowUtil.getBytes(OpflowObjectTree.buildMap(false)
+                            .put("type", OpflowOperationException.class.getName())
+                            .put("message", message)
+                            .toString()), OpflowObjectTree.buildMap(false)
+                            .put(CONST.AMQP_HEADER_RETURN_STATUS, "failed")
+                            .toMap()));
+                }
+            });
+        }
         
         return task;
     }
     
+    private Long getRoutineDeadline(OpflowRpcParameter params) {
+        if (params.getRoutineDeadline() != null) {
+            return params.getRoutineDeadline();
+        }
+        long _timeout = (params.getRoutineTTL() != null && params.getRoutineTTL() > 0) ? params.getRoutineTTL() : monitorTimeout;
+        if (_timeout <= 0) {
+            return null;
+        }
+        return System.currentTimeMillis() + _timeout;
+    }
+    
     public int getActiveRequestTotal() {
         return tasks.size();
     }
@@ -566,6 +647,10 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
                     timeoutMonitor.close();
                     timeoutMonitor = null;
                 }
+                if (timeoutWheel != null) {
+                    timeoutWheel.close();
+                    timeoutWheel = null;
+                }
             }
             
             if (logTracer.ready(LOG, Level.TRACE)) LOG.trace(logTracer
@@ -625,6 +710,14 @@ public class OpflowRpcAmqpMaster implements AutoCloseable {
     public Boolean getResponseQueueExclusive() {
         return responseQueueExclusive;
     }
+    
+    public boolean isResponseDirectReplyTo() {
+        return responseDirectReplyTo;
+    }
+    
+    public String getDispatchQueueName() {
+        return dispatchQueueName;
+    }
 
     @Override
     protected void finalize() throws Throwable {
@@ -3,13 +3,12 @@ package com.devebot.opflow;
 import com.devebot.opflow.OpflowLogTracer.Level;
 import com.devebot.opflow.supports.OpflowJsonTool;
 import com.devebot.opflow.exception.OpflowJsonTransformationException;
-import java.util.Arrays;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,9 +26,35 @@ public class OpflowRpcAmqpRequest implements Iterator, OpflowTimeout.Timeoutable
     private final String routineSignature;
     private final long timeout;
     private final OpflowTimeout.Listener completeListener;
+    private final boolean singleResponse;
     private long timestamp;
+    private boolean finished = false;
+    private boolean cancelled = false;
+    private CompletableFuture<OpflowRpcAmqpResult> future = null;
+    private OpflowTimeout.Handle timeoutHandle = null;
+    private Subscriber subscriber = null;
+    
+    /**
+     * Receives the progress messages as soon as they arrive on the callback
+     * consumer, then the final result (completed, failed or timeout).
+     */
+    public interface Subscriber {
+        void onProgress(int percent, String data);
+        void onComplete(OpflowRpcAmqpResult result);
+    }
 
     public OpflowRpcAmqpRequest(final OpflowRpcParameter params, final OpflowTimeout.Listener completeListener) {
+        this(params, completeListener, false);
+    }
+    
+    /**
+     * A singleResponse request expects no progress messages, only the final
+     * completed/failed one; it holds that message in a single field instead
+     * of a blocking queue.
+     */
+    public OpflowRpcAmqpRequest(final OpflowRpcParameter params, final OpflowTimeout.Listener completeListener, final boolean singleResponse) {
+        this.singleResponse = singleResponse;
+        this.list = singleResponse ? null : new LinkedBlockingQueue<OpflowEngine.Message>();
         this.routineId = params.getRoutineId();
         this.routineSignature = params.getRoutineSignature();
         this.routineTimestamp = params.getRoutineTimestamp();
@@ -64,6 +89,10 @@ public class OpflowRpcAmqpRequest implements Iterator, OpflowTimeout.Timeoutable
         return routineSignature;
     }
 
+    public boolean isSingleResponse() {
+        return singleResponse;
+    }
+
     @Override
     public long getTimeout() {
         if (this.timeout <= 0) return 0;
@@ -78,15 +107,18 @@ public class OpflowRpcAmqpRequest implements Iterator, OpflowTimeout.Timeoutable
     @Override
     public void raiseTimeout() {
         this.push(OpflowEngine.Message.ERROR);
+        this.finish();
     }
     
-    private final BlockingQueue<OpflowEngine.Message> list = new LinkedBlockingQueue<>();
+    private final BlockingQueue<OpflowEngine.Message> list;
+    private OpflowEngine.Message response = null;
+    private boolean responseTaken = false;
     private OpflowEngine.Message current = null;
     
     @Override
     public boolean hasNext() {
         try {
-            this.current = list.take();
+            this.current = singleResponse ? takeResponse() : list.take();
             if (this.current == OpflowEngine.Message.EMPTY) return false;
             if (this.current == OpflowEngine.Message.ERROR) return false;
             return true;
@@ -102,9 +134,112 @@ public class OpflowRpcAmqpRequest implements Iterator, OpflowTimeout.Timeoutable
         return result;
     }
     
+    private synchronized OpflowEngine.Message takeResponse() throws InterruptedException {
+        if (responseTaken) {
+            return OpflowEngine.Message.EMPTY;
+        }
+        while (response == null) wait();
+        responseTaken = true;
+        return response;
+    }
+    
+    private synchronized boolean putResponse(OpflowEngine.Message message) {
+        if (response != null) {
+            return false;
+        }
+        response = message;
+        notifyAll();
+        return true;
+    }
+    
+    /**
+     * Streams the messages of this request to the subscriber. The progress
+     * messages which have arrived before are replayed, and from now on they
+     * are handed over to the subscriber instead of being buffered; the final
+     * message is still kept for extractResult() and toFuture().
+     */
+    public synchronized void subscribe(Subscriber newSubscriber) {
+        if (newSubscriber == null) {
+            return;
+        }
+        if (list != null) {
+            Iterator<OpflowEngine.Message> iter = list.iterator();
+            while (iter.hasNext()) {
+                OpflowEngine.Message message = iter.next();
+                if (message == OpflowEngine.Message.EMPTY) continue;
+                if (!isDone(message)) {
+                    iter.remove();
+                }
+                notifySubscriber(newSubscriber, message);
+            }
+        } else if (response != null) {
+            notifySubscriber(newSubscriber, response);
+        }
+        subscriber = newSubscriber;
+    }
+    
+    private synchronized boolean publishToSubscriber(OpflowEngine.Message message) {
+        if (subscriber == null) {
+            return false;
+        }
+        notifySubscriber(subscriber, message);
+        return !isDone(message);
+    }
+    
+    private void notifySubscriber(Subscriber target, OpflowEngine.Message message) {
+        try {
+            if (isDone(message)) {
+                target.onComplete(toResult(message));
+            } else if ("progress".equals(getStatus(message))) {
+                int percent = -1;
+                String data = null;
+                try {
+                    Map<String, Object> body = OpflowJsonTool.toObjectMap(message.getBodyAsString());
+                    if (body != null && body.get("percent") instanceof Number) {
+                        percent = ((Number) body.get("percent")).intValue();
+                    }
+                    if (body != null && body.get("data") != null) {
+                        data = OpflowJsonTool.toString(body.get("data"));
+                    }
+                } catch (OpflowJsonTransformationException jse) {}
+                target.onProgress(percent, data);
+            }
+        } catch (RuntimeException exception) {
+            if (reqTracer.ready(LOG, Level.ERROR)) LOG.error(reqTracer
+                    .put("exceptionClass", exception.getClass().getName())
+                    .put("exceptionMessage", exception.getMessage())
+                    .text("Request[${requestId}][${requestTime}][x-rpc-request-subscriber-failed] - the subscriber has failed: ${exceptionMessage}")
+                    .stringify());
+        }
+    }
+    
+    private OpflowRpcAmqpResult toResult(OpflowEngine.Message message) {
+        String status = (message == OpflowEngine.Message.ERROR) ? null : getStatus(message);
+        String consumerTag = getMessageField(message, CONST.AMQP_HEADER_CONSUMER_TAG);
+        boolean failed = "failed".equals(status);
+        boolean completed = "completed".equals(status);
+        return new OpflowRpcAmqpResult(routineSignature, routineId, consumerTag, null,
+                failed, failed ? message.getBody() : null,
+                completed, completed ? message.getBody() : null);
+    }
+    
     public void push(OpflowEngine.Message message) {
-        list.add(message);
-        checkTimestamp();
+        // e.g. a late nack of the publisher confirms after the response
+        if (isSettled()) {
+            return;
+        }
+        if (singleResponse) {
+            // progress messages are not expected and only the first final message counts
+            if (!isDone(message) || !putResponse(message)) {
+                return;
+            }
+            publishToSubscriber(message);
+        } else {
+            if (!publishToSubscriber(message)) {
+                list.add(message);
+            }
+            checkTimestamp();
+        }
         if(isDone(message)) {
             OpflowLogTracer pushTrail = null;
             if (reqTracer.ready(LOG, Level.DEBUG)) {
@@ -113,7 +248,10 @@ public class OpflowRpcAmqpRequest implements Iterator, OpflowTimeout.Timeoutable
             if (pushTrail != null && pushTrail.ready(LOG, Level.DEBUG)) LOG.debug(pushTrail
                     .text("Request[${requestId}][${requestTime}][x-rpc-request-finished] has completed/failed message")
                     .stringify());
-            list.add(OpflowEngine.Message.EMPTY);
+            if (list != null) {
+                list.add(OpflowEngine.Message.EMPTY);
+            }
+            finish();
             if (completeListener != null) {
                 if (pushTrail != null && pushTrail.ready(LOG, Level.DEBUG)) LOG.debug(pushTrail
                         .text("Request[${requestId}][${requestTime}][x-rpc-request-callback] raises completeListener (completed)")
@@ -123,6 +261,71 @@ public class OpflowRpcAmqpRequest implements Iterator, OpflowTimeout.Timeoutable
         }
     }
     
+    public synchronized CompletableFuture<OpflowRpcAmqpResult> toFuture() {
+        if (future == null) {
+            future = new CompletableFuture<>();
+            if (finished) {
+                future.complete(extractResult(false));
+            }
+        }
+        return future;
+    }
+    
+    public synchronized void setTimeoutHandle(OpflowTimeout.Handle handle) {
+        if (handle != null && finished) {
+            handle.cancel();
+            return;
+        }
+        timeoutHandle = handle;
+    }
+    
+    /**
+     * Abandons the request: the timeout handle is released, the complete
+     * listener removes it from the master and the future completes without
+     * a result. A response arriving later is dropped.
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (finished) return;
+            cancelled = true;
+        }
+        if (list != null) {
+            list.add(OpflowEngine.Message.EMPTY);
+        } else {
+            putResponse(OpflowEngine.Message.EMPTY);
+        }
+        if (finish() && completeListener != null) {
+            if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                    .text("Request[${requestId}][${requestTime}][x-rpc-request-cancelled] raises completeListener (cancelled)")
+                    .stringify());
+            completeListener.handleEvent();
+        }
+    }
+    
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+    
+    private synchronized boolean isSettled() {
+        return cancelled || finished;
+    }
+    
+    private synchronized boolean finish() {
+        if (finished) return false;
+        finished = true;
+        if (timeoutHandle != null) {
+            timeoutHandle.cancel();
+            timeoutHandle = null;
+        }
+        if (future != null) {
+            if (reqTracer.ready(LOG, Level.DEBUG)) LOG.debug(reqTracer
+                    .text("Request[${requestId}][${requestTime}][x-rpc-request-future] completes the future")
+                    .stringify());
+            future.complete(extractResult(false));
+        }
+        return true;
+    }
+    
     public List<OpflowEngine.Message> iterateResult() {
         List<OpflowEngine.Message> buff = new LinkedList<>();
         while(this.hasNext()) buff.add(this.next());
@@ -183,16 +386,14 @@ public class OpflowRpcAmqpRequest implements Iterator, OpflowTimeout.Timeoutable
         return new OpflowRpcAmqpResult(routineSignature, routineId, consumerTag, steps, failed, error, completed, value);
     }
     
-    private static final List<String> STATUS = Arrays.asList(new String[] { "failed", "completed" });
-    
     private boolean isDone(OpflowEngine.Message message) {
         String status = getStatus(message);
         if (status == null) return false;
-        return STATUS.indexOf(status) >= 0;
+        return "failed".equals(status) || "completed".equals(status);
     }
     
     private void checkTimestamp() {
-        timestamp = (new Date()).getTime();
+        timestamp = System.currentTimeMillis();
     }
     
     private static String getStatus(OpflowEngine.Message message) {
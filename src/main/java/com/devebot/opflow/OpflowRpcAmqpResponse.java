@@ -17,6 +17,7 @@ import com.devebot.opflow.exception.OpflowOperationException;
 public class OpflowRpcAmqpResponse {
     private final static OpflowConstant CONST = OpflowConstant.CURRENT();
     private final static Logger LOG = LoggerFactory.getLogger(OpflowRpcAmqpResponse.class);
+    private final static ThreadLocal<OpflowRpcAmqpResponse> CURRENT = new ThreadLocal<>();
     private final OpflowLogTracer logTracer;
     private final String componentId;
     private final Channel channel;
@@ -121,6 +122,22 @@ public class OpflowRpcAmqpResponse {
                 .stringify());
     }
     
+    /**
+     * Returns the response of the request which is being served on the
+     * current thread, so that a routine can emit its progress.
+     */
+    public static OpflowRpcAmqpResponse current() {
+        return CURRENT.get();
+    }
+    
+    static void setCurrent(OpflowRpcAmqpResponse response) {
+        if (response == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(response);
+        }
+    }
+    
     public void emitProgress(int completed, int total) {
         emitProgress(completed, total, null);
     }
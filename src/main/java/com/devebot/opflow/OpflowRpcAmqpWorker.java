@@ -39,6 +39,7 @@ public class OpflowRpcAmqpWorker implements AutoCloseable {
     private final Boolean incomingQueueDurable;
     private final Boolean incomingQueueExclusive;
     private final Integer incomingPrefetchCount;
+    private final Integer incomingConcurrency;
     
     private final String responseQueueName;
     
@@ -84,6 +85,7 @@ public class OpflowRpcAmqpWorker implements AutoCloseable {
         incomingQueueAutoDelete = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_INCOMING_QUEUE_AUTO_DELETE, null);
         incomingBindingKeys = OpflowUtil.getStringArray(params, OpflowConstant.OPFLOW_INCOMING_BINDING_KEYS, null);
         incomingPrefetchCount = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_INCOMING_PREFETCH_COUNT, null);
+        incomingConcurrency = OpflowUtil.getIntegerField(params, OpflowConstant.OPFLOW_INCOMING_CONCURRENCY, null);
         
         engine = new OpflowEngine(brokerParams);
         executor = new OpflowExecutor(engine);
@@ -229,6 +231,7 @@ public class OpflowRpcAmqpWorker implements AutoCloseable {
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_REPLY_TO, responseQueueName);
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_AUTO_BINDING, Boolean.TRUE);
                 opts.put(OpflowConstant.OPFLOW_CONSUMING_PREFETCH_COUNT, incomingPrefetchCount);
+                opts.put(OpflowConstant.OPFLOW_CONSUMING_CONCURRENCY, incomingConcurrency);
             }
         }).toMap());
         if (logProcess.ready(LOG, Level.INFO)) LOG.info(logProcess
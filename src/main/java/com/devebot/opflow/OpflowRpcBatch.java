@@ -0,0 +1,137 @@
+package com.devebot.opflow;
+
+import com.devebot.opflow.supports.OpflowJsonTool;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * @author acegik
+ */
+public class OpflowRpcBatch {
+
+    public static class Call {
+        private final Method method;
+        private final Object[] args;
+
+        public Call(Method method, Object ... args) {
+            if (method == null) {
+                throw new IllegalArgumentException("The [method] parameter must not be null");
+            }
+            this.method = method;
+            this.args = (args != null) ? args : new Object[0];
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public Object[] getArgs() {
+            return args;
+        }
+    }
+
+    public static class Result {
+        private final boolean failed;
+        private final Object value;
+        private final Throwable error;
+
+        private Result(boolean failed, Object value, Throwable error) {
+            this.failed = failed;
+            this.value = value;
+            this.error = error;
+        }
+
+        public static Result asSuccess(Object value) {
+            return new Result(false, value, null);
+        }
+
+        public static Result asFailure(Throwable error) {
+            return new Result(true, null, error);
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+    static class Entry {
+        private String routineSignature;
+        private String body;
+
+        Entry(String routineSignature, String body) {
+            this.routineSignature = routineSignature;
+            this.body = body;
+        }
+
+        String getRoutineSignature() {
+            return routineSignature;
+        }
+
+        String getBody() {
+            return body;
+        }
+    }
+
+    static class Reply {
+        private boolean failed;
+        private String value;
+        private String error;
+
+        Reply(boolean failed, String value, String error) {
+            this.failed = failed;
+            this.value = value;
+            this.error = error;
+        }
+
+        boolean isFailed() {
+            return failed;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        String getError() {
+            return error;
+        }
+    }
+
+    static String encodeEntries(List<Entry> entries) {
+        return OpflowJsonTool.toString(entries.toArray(new Entry[entries.size()]));
+    }
+
+    static List<Entry> decodeEntries(String json) {
+        Entry[] entries = OpflowJsonTool.toObject(json, Entry[].class);
+        if (entries == null) {
+            return new ArrayList<>();
+        }
+        List<Entry> list = new ArrayList<>(entries.length);
+        Collections.addAll(list, entries);
+        return list;
+    }
+
+    static String encodeReplies(List<Reply> replies) {
+        return OpflowJsonTool.toString(replies.toArray(new Reply[replies.size()]));
+    }
+
+    static List<Reply> decodeReplies(String json) {
+        Reply[] replies = OpflowJsonTool.toObject(json, Reply[].class);
+        if (replies == null) {
+            return new ArrayList<>();
+        }
+        List<Reply> list = new ArrayList<>(replies.length);
+        Collections.addAll(list, replies);
+        return list;
+    }
+}
@@ -10,12 +10,24 @@ import com.devebot.opflow.supports.OpflowStringUtil;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.net.SocketTimeoutException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import com.squareup.nostro.okhttp3.Call;
+import com.squareup.nostro.okhttp3.Callback;
+import com.squareup.nostro.okhttp3.ConnectionPool;
+import com.squareup.nostro.okhttp3.Dispatcher;
 import com.squareup.nostro.okhttp3.MediaType;
 import com.squareup.nostro.okhttp3.OkHttpClient;
+import com.squareup.nostro.okhttp3.Protocol;
 import com.squareup.nostro.okhttp3.Request;
 import com.squareup.nostro.okhttp3.RequestBody;
 import com.squareup.nostro.okhttp3.Response;
@@ -42,6 +54,15 @@ public class OpflowRpcHttpMaster {
     private long writeTimeout;
     private long callTimeout;
     
+    private final boolean h2cEnabled;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final int maxIdleConnections;
+    private final long keepAliveDuration;
+    private final Dispatcher dispatcher;
+    private final ConnectionPool connectionPool;
+    private final ConcurrentMap<String, HostSlots> hostSlots = new ConcurrentHashMap<>();
+    
     private OkHttpClient httpClient = null;
     private final Object httpClientLock = new Object();
     private final boolean autorun;
@@ -60,6 +81,21 @@ public class OpflowRpcHttpMaster {
         writeTimeout = OpflowUtil.getLongField(params, OpflowConstant.HTTP_MASTER_PARAM_PUSH_TIMEOUT, 20000l);
         callTimeout = OpflowUtil.getLongField(params, OpflowConstant.HTTP_MASTER_PARAM_CALL_TIMEOUT, 180000l);
         
+        // HTTP/2 with prior knowledge, the workers must have enabled h2c as well
+        h2cEnabled = OpflowUtil.getBooleanField(params, OpflowConstant.OPFLOW_COMMON_H2C_ENABLED, Boolean.FALSE);
+        
+        // the sync and async calls share one dispatcher and one connection pool
+        maxRequests = Math.max(1, OpflowUtil.getIntegerField(params, OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS, 256));
+        maxRequestsPerHost = Math.max(1, OpflowUtil.getIntegerField(params, OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS_PER_HOST, 64));
+        maxIdleConnections = Math.max(1, OpflowUtil.getIntegerField(params, OpflowConstant.HTTP_MASTER_PARAM_MAX_IDLE_CONNECTIONS, 32));
+        keepAliveDuration = Math.max(1000l, OpflowUtil.getLongField(params, OpflowConstant.HTTP_MASTER_PARAM_KEEP_ALIVE_DURATION, 300000l));
+        
+        dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        // the limit per host is enforced by the HostSlots, for the sync and async calls alike
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        connectionPool = new ConnectionPool(maxIdleConnections, keepAliveDuration, TimeUnit.MILLISECONDS);
+        
         logTracer = OpflowLogTracer.ROOT.branch("httpMasterId", componentId);
         
         if (logTracer.ready(LOG, Level.INFO)) LOG.info(logTracer
@@ -93,11 +129,55 @@ public class OpflowRpcHttpMaster {
     public long getCallTimeout() {
         return callTimeout;
     }
+
+    public boolean isH2cEnabled() {
+        return h2cEnabled;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+    
+    public Map<String, Object> getDispatcherInfo() {
+        OpflowObjectTree.Builder<Object> hosts = OpflowObjectTree.buildMap();
+        for (Map.Entry<String, HostSlots> entry : hostSlots.entrySet()) {
+            HostSlots slots = entry.getValue();
+            hosts.put(entry.getKey(), OpflowObjectTree.buildMap()
+                    .put("queuedCalls", slots.pending.size() + slots.permits.getQueueLength())
+                    .put("runningCalls", maxRequestsPerHost - slots.permits.availablePermits())
+                    .toMap());
+        }
+        return OpflowObjectTree.buildMap()
+                .put(OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS, maxRequests)
+                .put(OpflowConstant.HTTP_MASTER_PARAM_MAX_REQUESTS_PER_HOST, maxRequestsPerHost)
+                .put("queuedCalls", dispatcher.queuedCallsCount())
+                .put("runningCalls", dispatcher.runningCallsCount())
+                .put("hosts", hosts.toMap())
+                .toMap();
+    }
+    
+    public Map<String, Object> getConnectionPoolInfo() {
+        return OpflowObjectTree.buildMap()
+                .put(OpflowConstant.HTTP_MASTER_PARAM_MAX_IDLE_CONNECTIONS, maxIdleConnections)
+                .put(OpflowConstant.HTTP_MASTER_PARAM_KEEP_ALIVE_DURATION, keepAliveDuration)
+                .put("connectionCount", connectionPool.connectionCount())
+                .put("idleConnectionCount", connectionPool.idleConnectionCount())
+                .toMap();
+    }
+    
+    private static String hostKey(Call call) {
+        return call.request().url().host() + ":" + call.request().url().port();
+    }
     
     public final void serve() {
     }
     
     public void close() {
+        connectionPool.evictAll();
     }
     
     public void reset() {
@@ -125,6 +205,30 @@ public class OpflowRpcHttpMaster {
         }
     }
     
+    /**
+     * Sends the request through the dispatcher. Cancelling the returned
+     * future cancels the HTTP call, e.g. when a hedged request has lost.
+     */
+    public CompletableFuture<Session> requestAsync(final String routineSignature, final String body, final OpflowRpcParameter parameter, final OpflowRpcRoutingInfo location) {
+        if (restrictor == null) {
+            return _request_async(routineSignature, body, parameter, location);
+        }
+        try {
+            return restrictor.filter(new OpflowRestrictor.Action<CompletableFuture<Session>>() {
+                @Override
+                public CompletableFuture<Session> process() throws Throwable {
+                    return _request_async(routineSignature, body, parameter, location);
+                }
+            });
+        }
+        catch (OpflowOperationException | OpflowRestrictionException opflowException) {
+            throw opflowException;
+        }
+        catch (Throwable e) {
+            throw new OpflowNonOperatingException(e);
+        }
+    }
+    
     private Session _request_safe(final String routineSignature, final String body, final OpflowRpcParameter parameter, final OpflowRpcRoutingInfo location) {
         final OpflowRpcParameter params = (parameter != null) ? parameter : new OpflowRpcParameter();
         
@@ -141,6 +245,182 @@ public class OpflowRpcHttpMaster {
                     .stringify());
         }
         
+        Call call = buildCall(body, params, location);
+        
+        if (call == null) {
+            return Session.asBroken(params);
+        }
+        
+        // the sync calls run on the caller thread and wait for a slot no longer than the deadline of the request
+        HostSlots slots = getHostSlots(hostKey(call));
+        Long deadline = params.getRoutineDeadline();
+        long waiting = (deadline != null) ? Math.max(0, deadline - System.currentTimeMillis()) : ((callTimeout > 0) ? callTimeout : Long.MAX_VALUE);
+        try {
+            if (!slots.permits.tryAcquire(waiting, TimeUnit.MILLISECONDS)) {
+                return handleException(params, new InterruptedIOException("maxRequestsPerHost has been reached"), reqTracer);
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return handleException(params, new InterruptedIOException("interrupted while waiting for a request slot"), reqTracer);
+        }
+        
+        if (deadline != null) {
+            long remaining = Math.max(1, deadline - System.currentTimeMillis());
+            if (callTimeout <= 0 || remaining < callTimeout) {
+                call.timeout().timeout(remaining, TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        try (Response response = call.execute()) {
+            return handleResponse(params, response, reqTracer);
+        }
+        catch (IOException exception) {
+            return handleException(params, exception, reqTracer);
+        }
+        finally {
+            slots.release();
+        }
+    }
+    
+    private HostSlots getHostSlots(String host) {
+        HostSlots slots = hostSlots.get(host);
+        if (slots == null) {
+            HostSlots created = new HostSlots();
+            slots = hostSlots.putIfAbsent(host, created);
+            if (slots == null) {
+                slots = created;
+            }
+        }
+        return slots;
+    }
+    
+    /**
+     * The calls in flight to a single host: a sync call waits for a permit,
+     * an async call is parked until a permit is released and then handed
+     * over to the dispatcher.
+     */
+    private class HostSlots {
+        private final Semaphore permits = new Semaphore(maxRequestsPerHost, true);
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        
+        void submit(Runnable starter) {
+            pending.add(starter);
+            drain();
+        }
+        
+        void release() {
+            permits.release();
+            drain();
+        }
+        
+        private void drain() {
+            while (!pending.isEmpty() && permits.tryAcquire()) {
+                Runnable starter = pending.poll();
+                if (starter == null) {
+                    permits.release();
+                    continue;
+                }
+                starter.run();
+            }
+        }
+    }
+    
+    private CompletableFuture<Session> _request_async(final String routineSignature, final String body, final OpflowRpcParameter parameter, final OpflowRpcRoutingInfo location) {
+        final OpflowRpcParameter params = (parameter != null) ? parameter : new OpflowRpcParameter();
+        
+        if (routineSignature != null) {
+            params.setRoutineSignature(routineSignature);
+        }
+        
+        final OpflowLogTracer reqTracer = logTracer.branch(OpflowConstant.REQUEST_TIME, params.getRoutineTimestamp())
+                .branch(OpflowConstant.REQUEST_ID, params.getRoutineId(), params);
+        
+        if (reqTracer != null && reqTracer.ready(LOG, Level.DEBUG)) {
+            LOG.debug(reqTracer
+                    .text("Request[${requestId}][${requestTime}][x-http-master-request-async] - httpMaster[${httpMasterId}][${instanceId}] - enqueue a request")
+                    .stringify());
+        }
+        
+        Call call = buildCall(body, params, location);
+        
+        if (call == null) {
+            return CompletableFuture.completedFuture(Session.asBroken(params));
+        }
+        
+        return enqueueCall(call, params, reqTracer);
+    }
+    
+    private CompletableFuture<Session> enqueueCall(final Call call, final OpflowRpcParameter params, final OpflowLogTracer reqTracer) {
+        final CompletableFuture<Session> future = new CompletableFuture<>();
+        final HostSlots slots = getHostSlots(hostKey(call));
+        
+        final Callback callback = new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                Session session = null;
+                try {
+                    session = handleResponse(params, response, reqTracer);
+                }
+                catch (IOException exception) {
+                    session = handleException(params, exception, reqTracer);
+                }
+                catch (RuntimeException exception) {
+                    session = Session.asCracked(params, exception);
+                }
+                finally {
+                    response.close();
+                    slots.release();
+                    if (session != null) {
+                        future.complete(session);
+                    } else {
+                        future.complete(Session.asBroken(params));
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException exception) {
+                slots.release();
+                try {
+                    future.complete(handleException(params, exception, reqTracer));
+                }
+                catch (RuntimeException error) {
+                    future.complete(Session.asCracked(params, error));
+                }
+            }
+        };
+        
+        future.whenComplete(new BiConsumer<Session, Throwable>() {
+            @Override
+            public void accept(Session session, Throwable error) {
+                if (future.isCancelled()) {
+                    call.cancel();
+                }
+            }
+        });
+        
+        slots.submit(new Runnable() {
+            @Override
+            public void run() {
+                if (future.isCancelled()) {
+                    slots.release();
+                    return;
+                }
+                try {
+                    call.enqueue(callback);
+                }
+                catch (RuntimeException exception) {
+                    slots.release();
+                    future.complete(Session.asCracked(params, exception));
+                }
+            }
+        });
+        
+        return future;
+    }
+    
+    private Call buildCall(final String body, final OpflowRpcParameter params, final OpflowRpcRoutingInfo location) {
         OkHttpClient client = assertHttpClient();
         
         Request.Builder reqBuilder = new Request.Builder()
@@ -157,10 +437,18 @@ public class OpflowRpcHttpMaster {
             reqBuilder = reqBuilder.header(OpflowConstant.HTTP_HEADER_ROUTINE_TAGS, OpflowStringUtil.joinWithComma(params.getRoutineTags()));
         }
         
+        Long deadline = params.getRoutineDeadline();
+        if (deadline == null && callTimeout > 0) {
+            deadline = System.currentTimeMillis() + callTimeout;
+        }
+        if (deadline != null) {
+            reqBuilder = reqBuilder.header(OpflowConstant.HTTP_HEADER_ROUTINE_DEADLINE, String.valueOf(deadline));
+        }
+        
         String url = extractUrl(location);
         
         if (url == null) {
-            return Session.asBroken(params);
+            return null;
         }
         
         reqBuilder.url(url);
@@ -170,69 +458,65 @@ public class OpflowRpcHttpMaster {
             reqBuilder = reqBuilder.post(reqBody);
         }
         
-        Request request = reqBuilder.build();
-        
-        Call call = client.newCall(request);
-        
-        Session session = null;
-        
-        try {
-            Response response = call.execute();
-            if (testException) {
-                throw new IOException(reqTracer.text("Request[${requestId}][${requestTime}] - throw a testing exception").stringify());
-            }
-            if (response.isSuccessful()) {
-                session = Session.asOk(params, response.body().string());
-                if (reqTracer != null && reqTracer.ready(LOG, Level.DEBUG)) {
-                    LOG.debug(reqTracer
-                            .put("protocol", response.protocol().toString())
-                            .put("statusCode", response.code())
-                            .text("Request[${requestId}][${requestTime}][x-http-master-response-ok] - httpMaster[${httpMasterId}][${instanceId}] - statusCode ${statusCode}")
-                            .stringify());
-                }
-            } else {
-                session = Session.asFailed(params, response.body().string());
-                if (reqTracer != null && reqTracer.ready(LOG, Level.DEBUG)) {
-                    LOG.debug(reqTracer
-                            .put("protocol", response.protocol().toString())
-                            .put("statusCode", response.code())
-                            .text("Request[${requestId}][${requestTime}][x-http-master-response-failed] - httpMaster[${httpMasterId}][${instanceId}] - statusCode ${statusCode}")
-                            .stringify());
-                }
+        return client.newCall(reqBuilder.build());
+    }
+    
+    private Session handleResponse(final OpflowRpcParameter params, final Response response, final OpflowLogTracer reqTracer) throws IOException {
+        Session session;
+        if (testException) {
+            throw new IOException(reqTracer.text("Request[${requestId}][${requestTime}] - throw a testing exception").stringify());
+        }
+        if (response.isSuccessful()) {
+            session = Session.asOk(params, response.body().string());
+            if (reqTracer != null && reqTracer.ready(LOG, Level.DEBUG)) {
+                LOG.debug(reqTracer
+                        .put("protocol", response.protocol().toString())
+                        .put("statusCode", response.code())
+                        .text("Request[${requestId}][${requestTime}][x-http-master-response-ok] - httpMaster[${httpMasterId}][${instanceId}] - statusCode ${statusCode}")
+                        .stringify());
             }
-            if (rpcObserver != null) {
-                rpcObserver.check(OpflowConstant.Protocol.HTTP, extractHeaders(response));
+        } else {
+            session = Session.asFailed(params, response.body().string());
+            if (reqTracer != null && reqTracer.ready(LOG, Level.DEBUG)) {
+                LOG.debug(reqTracer
+                        .put("protocol", response.protocol().toString())
+                        .put("statusCode", response.code())
+                        .text("Request[${requestId}][${requestTime}][x-http-master-response-failed] - httpMaster[${httpMasterId}][${instanceId}] - statusCode ${statusCode}")
+                        .stringify());
             }
         }
-        catch (SocketTimeoutException exception) {
-            session = Session.asTimeout(params, exception);
+        if (rpcObserver != null) {
+            rpcObserver.check(OpflowConstant.Protocol.HTTP, extractHeaders(response));
+        }
+        return session;
+    }
+    
+    private Session handleException(final OpflowRpcParameter params, final IOException exception, final OpflowLogTracer reqTracer) {
+        if (exception instanceof SocketTimeoutException) {
             if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) {
                 LOG.error(reqTracer
                         .put("exceptionName", exception.getClass().getName())
                         .text("Request[${requestId}][${requestTime}][x-http-master-response-rwTimeout] - httpMaster[${httpMasterId}][${instanceId}] - readTimeout/writeTimeout")
                         .stringify());
             }
+            return Session.asTimeout(params, exception);
         }
-        catch (InterruptedIOException exception) {
-            session = Session.asTimeout(params, exception);
+        if (exception instanceof InterruptedIOException) {
             if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) {
                 LOG.error(reqTracer
                         .put("exceptionName", exception.getClass().getName())
                         .text("Request[${requestId}][${requestTime}][x-http-master-response-callTimeout] - httpMaster[${httpMasterId}][${instanceId}] - callTimeout")
                         .stringify());
             }
+            return Session.asTimeout(params, exception);
         }
-        catch (IOException exception) {
-            session = Session.asCracked(params, exception);
-            if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) {
-                LOG.error(reqTracer
-                        .put("exceptionName", exception.getClass().getName())
-                        .text("Request[${requestId}][${requestTime}][x-http-master-response-cracked] - httpMaster[${httpMasterId}][${instanceId}] - Exception ${exceptionName}")
-                        .stringify());
-            }
+        if (reqTracer != null && reqTracer.ready(LOG, Level.ERROR)) {
+            LOG.error(reqTracer
+                    .put("exceptionName", exception.getClass().getName())
+                    .text("Request[${requestId}][${requestTime}][x-http-master-response-cracked] - httpMaster[${httpMasterId}][${instanceId}] - Exception ${exceptionName}")
+                    .stringify());
         }
-        
-        return session;
+        return Session.asCracked(params, exception);
     }
     
     private String extractUrl(OpflowRpcRoutingInfo routingInfo) {
@@ -270,11 +554,17 @@ public class OpflowRpcHttpMaster {
         if (httpClient == null) {
             synchronized (httpClientLock) {
                 if (httpClient == null) {
-                    httpClient = new OkHttpClient.Builder()
+                    OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                        .dispatcher(dispatcher)
+                        .connectionPool(connectionPool)
                         .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
                         .writeTimeout(writeTimeout, TimeUnit.MILLISECONDS)
-                        .callTimeout(callTimeout, TimeUnit.MILLISECONDS)
-                        .build();
+                        .callTimeout(callTimeout, TimeUnit.MILLISECONDS);
+                    if (h2cEnabled) {
+                        // the concurrent calls to a worker are multiplexed on a single connection
+                        builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+                    }
+                    httpClient = builder.build();
                 }
             }
         }
@@ -6,6 +6,7 @@ import com.devebot.opflow.supports.OpflowJsonTool;
 import com.devebot.opflow.supports.OpflowObjectTree;
 import com.devebot.opflow.supports.OpflowStringUtil;
 import io.undertow.Undertow;
+import io.undertow.UndertowOptions;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.RoutingHandler;
@@ -38,6 +39,7 @@ public class OpflowRpcHttpWorker {
     private final String host;
     private final String hostname;
     private final Integer port;
+    private final boolean h2cEnabled;
     private final long shutdownTimeout;
     private final Thread shutdownHook;
     private Undertow server;
@@ -66,6 +68,8 @@ public class OpflowRpcHttpWorker {
                 .text("httpWorker[${httpWorkerId}][${instanceId}] - open the HTTP server on [${host}:${port}] with hostname[${hostname}]")
                 .stringify());
         
+        h2cEnabled = OpflowUtil.getBooleanField(kwargs, OpflowConstant.OPFLOW_COMMON_H2C_ENABLED, Boolean.FALSE);
+        
         shutdownTimeout = OpflowUtil.getLongField(kwargs, "shutdownTimeout", 1000l);
         
         shutdownHook = new Thread() {
@@ -102,6 +106,10 @@ public class OpflowRpcHttpWorker {
         return port;
     }
     
+    public boolean isH2cEnabled() {
+        return h2cEnabled;
+    }
+    
     public String getAddress() {
         if (hostname != null) {
             return hostname + ":" + String.valueOf(port);
@@ -145,8 +153,10 @@ public class OpflowRpcHttpWorker {
             if (server == null) {
                 shutdownHandler = new GracefulShutdownHandler(defaultHandlers);
                 
+                // the HTTP/1.1 clients are still accepted when HTTP/2 is enabled
                 server = Undertow.builder()
                         .addHttpListener(port, host)
+                        .setServerOption(UndertowOptions.ENABLE_HTTP2, h2cEnabled)
                         .setHandler(shutdownHandler)
                         .build();
 
@@ -282,6 +292,14 @@ public class OpflowRpcHttpWorker {
                 String routineSignature = reqHeaders.getFirst(OpflowConstant.HTTP_HEADER_ROUTINE_SIGNATURE);
                 String routineScope = reqHeaders.getFirst(OpflowConstant.HTTP_HEADER_ROUTINE_SCOPE);
                 String[] routineTags = OpflowStringUtil.splitByComma(reqHeaders.getFirst(OpflowConstant.HTTP_HEADER_ROUTINE_TAGS));
+                String routineDeadline = reqHeaders.getFirst(OpflowConstant.HTTP_HEADER_ROUTINE_DEADLINE);
+                
+                Map<String, String> extra = null;
+                if (routineDeadline != null) {
+                    extra = OpflowObjectTree.<String>buildMap()
+                            .put(OpflowConstant.ROUTINE_DEADLINE, routineDeadline)
+                            .toMap();
+                }
                 
                 OpflowLogTracer reqTracer = null;
                 if (logTracer.ready(LOG, Level.INFO)) {
@@ -304,7 +322,7 @@ public class OpflowRpcHttpWorker {
                     if (middleware.getMatcher().match(routineSignature)) {
                         count++;
                         measurer.countRpcInvocation(OpflowConstant.COMP_RPC_HTTP_WORKER, OpflowConstant.METHOD_INVOCATION_REMOTE_AMQP_WORKER, routineSignature, "process");
-                        output = middleware.getListener().processMessage(body, routineSignature, routineScope, routineTimestamp, routineId, null);
+                        output = middleware.getListener().processMessage(body, routineSignature, routineScope, routineTimestamp, routineId, extra);
                         break;
                     }
                 }
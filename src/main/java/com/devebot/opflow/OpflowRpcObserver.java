@@ -52,6 +52,8 @@ public class OpflowRpcObserver {
     private boolean congestiveAMQP = false;
     private boolean congestiveHTTP = false;
     
+    private final OpflowCircuitBreaker circuitBreaker;
+    
     private final boolean trimmingEnabled;
     private final long trimmingTimeDelay;
     
@@ -77,6 +79,8 @@ public class OpflowRpcObserver {
         trimmingEnabled = OpflowUtil.getBooleanField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_TRIMMING_ENABLED, Boolean.TRUE);
         trimmingTimeDelay = OpflowUtil.getLongField(kwargs, OpflowConstant.OPFLOW_COUNSELOR_TRIMMING_TIME_DELAY, KEEP_ALIVE_TIMEOUT / 10);
         
+        circuitBreaker = new OpflowCircuitBreaker(logTracer, kwargs);
+        
         serviceUpdater = new OpflowDiscoveryMaster.ServiceHealthHook() {
             @Override
             public void onChange(Map<String, OpflowRpcRoutingInfo> serviceInfo) {
@@ -137,6 +141,10 @@ public class OpflowRpcObserver {
         return keepAliveTimeout;
     }
 
+    public OpflowCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
     public OpflowDiscoveryMaster.ServiceHealthHook getServiceUpdater() {
         return serviceUpdater;
     }
@@ -326,6 +334,42 @@ public class OpflowRpcObserver {
         }
     }
     
+    public boolean allowRequest(OpflowConstant.Protocol protocol, String routineSignature) {
+        return circuitBreaker.allowRequest(protocol, routineSignature, null);
+    }
+    
+    public void releaseRequest(OpflowConstant.Protocol protocol, String routineSignature, String componentId) {
+        circuitBreaker.releaseRequest(protocol, routineSignature, componentId);
+    }
+    
+    public void recordOutcome(OpflowConstant.Protocol protocol, String routineSignature, String componentId, long latency, boolean ok) {
+        circuitBreaker.recordOutcome(protocol, routineSignature, componentId, latency, ok);
+    }
+    
+    public OpflowRpcRoutingInfo getRoutingInfo(OpflowConstant.Protocol protocol, String routineSignature) {
+        switch (protocol) {
+            case HTTP:
+                if (this.congestiveHTTP) {
+                    return null;
+                }
+                return selectGoodRoutingInfo(protocol, httpRoutingMap, routineSignature);
+            default:
+                return getRoutingInfo(protocol);
+        }
+    }
+    
+    private OpflowRpcRoutingInfo selectGoodRoutingInfo(OpflowConstant.Protocol protocol, OpflowRevolvingMap<String, OpflowRpcRoutingInfo> revolver, String routineSignature) {
+        int size = revolver.size();
+        while (size > 0) {
+            OpflowRpcRoutingInfo info = revolver.rotate();
+            if (!info.isCongestive() && circuitBreaker.allowRequest(protocol, routineSignature, info.getComponentId())) {
+                return info;
+            }
+            size--;
+        }
+        return null;
+    }
+    
     private OpflowRpcRoutingInfo selectGoodRoutingInfo(OpflowRevolvingMap<String, OpflowRpcRoutingInfo> revolver) {
         OpflowRpcRoutingInfo routingInfo = null;
         int size = revolver.size();
@@ -376,6 +420,7 @@ public class OpflowRpcObserver {
                 manifests.remove(key);
                 amqpRoutingMap.remove(key);
                 httpRoutingMap.remove(key);
+                circuitBreaker.remove(key);
             }
         }
     }
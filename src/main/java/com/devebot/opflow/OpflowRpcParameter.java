@@ -24,6 +24,7 @@ public class OpflowRpcParameter implements Customizer {
     private final String routineTimestamp;
     private String[] routineTags = null;
     private Long routineTTL = null;
+    private Long routineDeadline = null;
     private String routineSignature = null;
     private String routineScope = null;
     private Boolean callbackTransient = false;
@@ -49,6 +50,7 @@ public class OpflowRpcParameter implements Customizer {
         this.progressEnabled = OpflowUtil.getProgressEnabled(headers);
 
         this.routineTTL = OpflowUtil.getLongField(headers, "timeout", null);
+        this.routineDeadline = OpflowUtil.getRoutineDeadline(headers);
         this.callbackTransient = "forked".equals((String)headers.get("mode"));
 
         this.isInternalOplog = determineInternalOplog();
@@ -100,6 +102,15 @@ public class OpflowRpcParameter implements Customizer {
         return this;
     }
     
+    public Long getRoutineDeadline() {
+        return routineDeadline;
+    }
+
+    public OpflowRpcParameter setRoutineDeadline(Long routineDeadline) {
+        this.routineDeadline = routineDeadline;
+        return this;
+    }
+    
     public String getRoutineScope() {
         return routineScope;
     }
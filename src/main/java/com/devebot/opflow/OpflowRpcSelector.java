@@ -0,0 +1,184 @@
+package com.devebot.opflow;
+
+import com.devebot.opflow.OpflowLogTracer.Level;
+import com.devebot.opflow.supports.OpflowObjectTree;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author acegik
+ */
+public class OpflowRpcSelector {
+    private final static Logger LOG = LoggerFactory.getLogger(OpflowRpcSelector.class);
+
+    private final static double DEFAULT_SMOOTHING_FACTOR = 0.2;
+    private final static double DEFAULT_EXPLORATION_RATE = 0.05;
+    private final static int DEFAULT_MIN_SAMPLES = 5;
+
+    private final String componentId;
+    private final OpflowLogTracer logTracer;
+    private final double smoothingFactor;
+    private final double explorationRate;
+    private final int minSamples;
+
+    private final ConcurrentMap<String, Estimator> estimators = new ConcurrentHashMap<>();
+
+    public OpflowRpcSelector(Map<String, Object> kwargs) {
+        kwargs = OpflowObjectTree.ensureNonNull(kwargs);
+        componentId = OpflowUtil.getStringField(kwargs, OpflowConstant.COMPONENT_ID, true);
+        logTracer = OpflowLogTracer.ROOT.branch("rpcSelectorId", componentId);
+
+        smoothingFactor = getRatioField(kwargs, OpflowConstant.OPFLOW_RPC_SELECTOR_SMOOTHING_FACTOR, DEFAULT_SMOOTHING_FACTOR);
+        explorationRate = getRatioField(kwargs, OpflowConstant.OPFLOW_RPC_SELECTOR_EXPLORATION_RATE, DEFAULT_EXPLORATION_RATE);
+        Integer _minSamples = OpflowUtil.getIntegerField(kwargs, OpflowConstant.OPFLOW_RPC_SELECTOR_MIN_SAMPLES, DEFAULT_MIN_SAMPLES);
+        minSamples = (_minSamples != null && _minSamples > 0) ? _minSamples : DEFAULT_MIN_SAMPLES;
+
+        if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                .put("smoothingFactor", smoothingFactor)
+                .put("explorationRate", explorationRate)
+                .put("minSamples", minSamples)
+                .text("RpcSelector[${rpcSelectorId}] has been created with smoothingFactor: ${smoothingFactor}, explorationRate: ${explorationRate}")
+                .stringify());
+    }
+
+    public String getComponentId() {
+        return componentId;
+    }
+
+    /**
+     * Returns the transport that should be tried first for the given routine.
+     * The per-routine estimates are preferred once they have enough samples,
+     * otherwise the per-transport estimates are used; AMQP is kept first
+     * until both transports have enough samples.
+     */
+    public OpflowConstant.Protocol select(String routineSignature) {
+        OpflowConstant.Protocol best = OpflowConstant.Protocol.AMQP;
+        OpflowConstant.Protocol other = OpflowConstant.Protocol.HTTP;
+
+        Estimator amqp = getReadyEstimator(OpflowConstant.Protocol.AMQP, routineSignature);
+        Estimator http = getReadyEstimator(OpflowConstant.Protocol.HTTP, routineSignature);
+        if (amqp != null && http != null && http.getCost() < amqp.getCost()) {
+            best = OpflowConstant.Protocol.HTTP;
+            other = OpflowConstant.Protocol.AMQP;
+        }
+
+        if (explorationRate > 0 && ThreadLocalRandom.current().nextDouble() < explorationRate) {
+            return other;
+        }
+        return best;
+    }
+
+    public void record(OpflowConstant.Protocol protocol, String routineSignature, long latency, boolean ok) {
+        getEstimator(protocol.name()).update(latency, ok);
+        if (routineSignature != null) {
+            getEstimator(buildKey(protocol, routineSignature)).update(latency, ok);
+        }
+    }
+
+    public void reset() {
+        estimators.clear();
+    }
+
+    public Map<String, Object> toMap() {
+        OpflowObjectTree.Builder<Object> routines = OpflowObjectTree.buildMap();
+        for (Map.Entry<String, Estimator> entry : estimators.entrySet()) {
+            if (entry.getKey().indexOf('#') > 0) {
+                routines.put(entry.getKey(), entry.getValue().toMap());
+            }
+        }
+        return OpflowObjectTree.buildMap()
+                .put(OpflowConstant.COMPONENT_ID, componentId)
+                .put(OpflowConstant.OPFLOW_RPC_SELECTOR_SMOOTHING_FACTOR, smoothingFactor)
+                .put(OpflowConstant.OPFLOW_RPC_SELECTOR_EXPLORATION_RATE, explorationRate)
+                .put(OpflowConstant.OPFLOW_RPC_SELECTOR_MIN_SAMPLES, minSamples)
+                .put(OpflowConstant.Protocol.AMQP.name(), getEstimator(OpflowConstant.Protocol.AMQP.name()).toMap())
+                .put(OpflowConstant.Protocol.HTTP.name(), getEstimator(OpflowConstant.Protocol.HTTP.name()).toMap())
+                .put("routines", routines.toMap())
+                .toMap();
+    }
+
+    private Estimator getReadyEstimator(OpflowConstant.Protocol protocol, String routineSignature) {
+        Estimator estimator = estimators.get(buildKey(protocol, routineSignature));
+        if (estimator == null || estimator.getSamples() < minSamples) {
+            estimator = estimators.get(protocol.name());
+        }
+        if (estimator == null || estimator.getSamples() < minSamples) {
+            return null;
+        }
+        return estimator;
+    }
+
+    private Estimator getEstimator(String key) {
+        Estimator estimator = estimators.get(key);
+        if (estimator == null) {
+            Estimator created = new Estimator(smoothingFactor);
+            estimator = estimators.putIfAbsent(key, created);
+            if (estimator == null) {
+                estimator = created;
+            }
+        }
+        return estimator;
+    }
+
+    private static String buildKey(OpflowConstant.Protocol protocol, String routineSignature) {
+        return protocol.name() + "#" + routineSignature;
+    }
+
+    private static double getRatioField(Map<String, Object> kwargs, String fieldName, double defValue) {
+        Object value = kwargs.get(fieldName);
+        double ratio = defValue;
+        if (value instanceof Number) {
+            ratio = ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            try {
+                ratio = Double.parseDouble((String) value);
+            } catch (NumberFormatException exception) {}
+        }
+        return (ratio >= 0 && ratio <= 1) ? ratio : defValue;
+    }
+
+    private static class Estimator {
+        private final double alpha;
+        private double latency = 0;
+        private double errorRate = 0;
+        private long samples = 0;
+
+        Estimator(double alpha) {
+            this.alpha = alpha;
+        }
+
+        synchronized void update(long elapsed, boolean ok) {
+            double error = ok ? 0 : 1;
+            if (samples == 0) {
+                latency = elapsed;
+                errorRate = error;
+            } else {
+                latency = alpha * elapsed + (1 - alpha) * latency;
+                errorRate = alpha * error + (1 - alpha) * errorRate;
+            }
+            samples++;
+        }
+
+        synchronized long getSamples() {
+            return samples;
+        }
+
+        synchronized double getCost() {
+            // the expected latency grows as the success ratio shrinks
+            return latency / Math.max(0.05, 1 - errorRate);
+        }
+
+        synchronized Map<String, Object> toMap() {
+            return OpflowObjectTree.buildMap()
+                    .put("latency", Math.round(latency))
+                    .put("errorRate", errorRate)
+                    .put("samples", samples)
+                    .toMap();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.devebot.opflow.exception.OpflowBootstrapException;
 import com.devebot.opflow.exception.OpflowInstantiationException;
 import com.devebot.opflow.exception.OpflowJsonSyntaxException;
 import com.devebot.opflow.exception.OpflowMethodNotFoundException;
+import com.devebot.opflow.exception.OpflowRequestTimeoutException;
 import com.devebot.opflow.exception.OpflowTargetNotFoundException;
 import com.devebot.opflow.supports.OpflowCollectionUtil;
 import com.devebot.opflow.supports.OpflowObjectTree;
@@ -15,6 +16,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -22,6 +24,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -218,6 +224,7 @@ public class OpflowServerlet implements AutoCloseable {
             if (amqpWorker != null || httpWorker != null || subscriber != null) {
                 instantiator = new Instantiator(amqpWorker, httpWorker, subscriber, OpflowObjectTree.buildMap(false)
                     .put(OpflowConstant.COMPONENT_ID, componentId)
+                    .put(OpflowConstant.COMP_MEASURER, measurer)
                     .toMap());
             }
         } catch (OpflowBootstrapException exception) {
@@ -392,6 +399,7 @@ public class OpflowServerlet implements AutoCloseable {
 
         private static final Logger LOG = LoggerFactory.getLogger(Instantiator.class);
         private final OpflowLogTracer logTracer;
+        private final OpflowPromMeasurer measurer;
         private final OpflowRpcAmqpWorker amqpWorker;
         private final OpflowRpcAmqpWorker.Listener amqpListener;
         private final OpflowRpcHttpWorker httpWorker;
@@ -415,6 +423,10 @@ public class OpflowServerlet implements AutoCloseable {
             options = OpflowObjectTree.ensureNonNull(options);
             final String componentId = OpflowUtil.getStringField(options, OpflowConstant.COMPONENT_ID, true);
             this.logTracer = OpflowLogTracer.ROOT.branch("instantiatorId", componentId);
+            this.measurer = (OpflowPromMeasurer) OpflowUtil.getOptionField(options, OpflowConstant.COMP_MEASURER, OpflowPromMeasurer.NULL);
+            
+            // the batch routine is always served, it dispatches to the registered routines
+            this.routineSignatures.add(OpflowConstant.OPFLOW_ROUTINE_BATCH_SIGNATURE);
             
             this.amqpWorker = amqpWorker;
             this.amqpListener = new OpflowRpcAmqpWorker.Listener() {
@@ -427,12 +439,21 @@ public class OpflowServerlet implements AutoCloseable {
                     final String routineSignature = response.getRoutineSignature();
                     final String body = message.getBodyAsString();
                     
+                    final Long routineDeadline = OpflowUtil.getRoutineDeadline(headers);
+                    
                     Map<String, String> extra = OpflowObjectTree.<String>buildMap()
                         .put("replyToQueue", response.getReplyQueueName())
                         .put("consumerTag", response.getConsumerTag())
+                        .put(OpflowConstant.ROUTINE_DEADLINE, String.valueOf(routineDeadline), routineDeadline != null)
                         .toMap();
                     
-                    RoutineOutput output = invokeRoutine(OpflowConstant.Protocol.AMQP, body, routineSignature, routineScope, routineTimestamp, routineId, componentId, extra);
+                    RoutineOutput output;
+                    OpflowRpcAmqpResponse.setCurrent(response);
+                    try {
+                        output = invokeRoutine(OpflowConstant.Protocol.AMQP, body, routineSignature, routineScope, routineTimestamp, routineId, componentId, extra);
+                    } finally {
+                        OpflowRpcAmqpResponse.setCurrent(null);
+                    }
                     output.fill(response);
                     
                     return null;
@@ -518,6 +539,13 @@ public class OpflowServerlet implements AutoCloseable {
             final String componentId,
             final Map<String, String> extra
         ) {
+            final Long routineDeadline = (extra != null) ? OpflowUtil.parseRoutineDeadline(extra.get(OpflowConstant.ROUTINE_DEADLINE)) : null;
+            if (OpflowUtil.isRoutineExpired(routineDeadline)) {
+                return skipRoutine(routineSignature, routineTimestamp, routineId, routineScope, routineDeadline);
+            }
+            if (OpflowConstant.OPFLOW_ROUTINE_BATCH_SIGNATURE.equals(routineSignature)) {
+                return invokeBatch(protocol, body, routineScope, routineTimestamp, routineId, componentId, extra);
+            }
             RoutineOutput output = null;
             final String methodSignature = methodOfAlias.getOrDefault(routineSignature, routineSignature);
             final OpflowLogTracer reqTracer = logTracer.branch(OpflowConstant.REQUEST_TIME, routineTimestamp)
@@ -617,6 +645,26 @@ public class OpflowServerlet implements AutoCloseable {
                             .stringify());
                     }
                     returnValue = method.invoke(target, args);
+                    if (returnValue instanceof CompletableFuture) {
+                        CompletableFuture future = (CompletableFuture) returnValue;
+                        try {
+                            if (routineDeadline == null) {
+                                returnValue = future.get();
+                            } else {
+                                returnValue = future.get(Math.max(0, routineDeadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                            }
+                        } catch (ExecutionException ex) {
+                            throw new InvocationTargetException(ex.getCause());
+                        } catch (TimeoutException ex) {
+                            future.cancel(true);
+                            if (reqTracer.ready(LOG, Level.INFO)) {
+                                LOG.info(reqTracer
+                                    .text("Request[${requestId}][${requestTime}][x-serverlet-rpc-abandoned] - the deadline has passed before the returned future completed")
+                                    .stringify());
+                            }
+                            return skipRoutine(routineSignature, routineTimestamp, routineId, routineScope, routineDeadline);
+                        }
+                    }
                 }
 
                 String result = OpflowJsonTool.toString(returnValue);
@@ -652,7 +700,7 @@ public class OpflowServerlet implements AutoCloseable {
                     .put("message", ex.getMessage())
                     .toString());
             } catch (InvocationTargetException ex) {
-                Throwable cause = (Exception) ex.getCause();
+                Throwable cause = ex.getCause();
                 if (cause == null) {
                     cause = ex;
                 }
@@ -680,8 +728,88 @@ public class OpflowServerlet implements AutoCloseable {
             return output;
         }
         
+        private RoutineOutput skipRoutine(String routineSignature, String routineTimestamp, String routineId, String routineScope, Long routineDeadline) {
+            final OpflowLogTracer reqTracer = logTracer.branch(OpflowConstant.REQUEST_TIME, routineTimestamp)
+                .branch(OpflowConstant.REQUEST_ID, routineId, new OpflowUtil.OmitInternalOplogs(routineScope));
+            if (reqTracer.ready(LOG, Level.INFO)) {
+                LOG.info(reqTracer
+                    .put("routineSignature", routineSignature)
+                    .put("expiredTime", System.currentTimeMillis() - routineDeadline)
+                    .text("Request[${requestId}][${requestTime}][x-serverlet-rpc-expired]"
+                        + " - the deadline of routine[${routineSignature}] has passed ${expiredTime}ms ago, skip the invocation")
+                    .stringify());
+            }
+            measurer.countRpcInvocation(OpflowConstant.COMP_SERVERLET, OpflowConstant.METHOD_INVOCATION_FLOW_DEADLINE, routineSignature, OpflowConstant.METHOD_INVOCATION_STATUS_EXPIRED);
+            OpflowRequestTimeoutException error = new OpflowRequestTimeoutException("The deadline of the request has passed");
+            return RoutineOutput.asExpired(OpflowObjectTree.buildMap(false)
+                .put("exceptionClass", error.getClass().getName())
+                .put("exceptionPayload", OpflowJsonTool.toString(error))
+                .put("type", error.getClass().getName())
+                .put("message", error.getMessage())
+                .toString());
+        }
+        
+        private RoutineOutput invokeBatch(
+            final OpflowConstant.Protocol protocol,
+            final String body,
+            final String routineScope,
+            final String routineTimestamp,
+            final String routineId,
+            final String componentId,
+            final Map<String, String> extra
+        ) {
+            final OpflowLogTracer reqTracer = logTracer.branch(OpflowConstant.REQUEST_TIME, routineTimestamp)
+                .branch(OpflowConstant.REQUEST_ID, routineId, new OpflowUtil.OmitInternalOplogs(routineScope));
+            List<OpflowRpcBatch.Entry> entries;
+            try {
+                entries = OpflowRpcBatch.decodeEntries(body);
+            } catch (OpflowJsonSyntaxException error) {
+                return RoutineOutput.asFailure(OpflowObjectTree.buildMap(false)
+                    .put("exceptionClass", error.getClass().getName())
+                    .put("exceptionPayload", OpflowJsonTool.toString(error))
+                    .put("type", error.getClass().getName())
+                    .put("message", error.getMessage())
+                    .toString());
+            }
+            if (reqTracer.ready(LOG, Level.INFO)) {
+                LOG.info(reqTracer
+                    .put("batchSize", entries.size())
+                    .text("Request[${requestId}][${requestTime}][x-serverlet-batch-received] - Serverlet[${instantiatorId}] unpacks a batch of ${batchSize} calls")
+                    .stringify());
+            }
+            List<OpflowRpcBatch.Reply> replies = new ArrayList<>(entries.size());
+            for (OpflowRpcBatch.Entry entry : entries) {
+                RoutineOutput output;
+                if (OpflowConstant.OPFLOW_ROUTINE_BATCH_SIGNATURE.equals(entry.getRoutineSignature())) {
+                    output = RoutineOutput.asFailure(OpflowObjectTree.buildMap(false)
+                        .put("type", UnsupportedOperationException.class.getName())
+                        .put("message", "Nested batches are unsupported")
+                        .toString());
+                } else {
+                    try {
+                        output = invokeRoutine(protocol, entry.getBody(), entry.getRoutineSignature(), routineScope, routineTimestamp, routineId, componentId, extra);
+                    } catch (RuntimeException ex) {
+                        output = RoutineOutput.asFailure(OpflowObjectTree.buildMap(false)
+                            .put("exceptionClass", ex.getClass().getName())
+                            .put("exceptionPayload", OpflowJsonTool.toString(ex))
+                            .put("type", ex.getClass().getName())
+                            .put("message", ex.getMessage())
+                            .toString());
+                    }
+                }
+                replies.add(new OpflowRpcBatch.Reply(output.failed, output.value, output.error));
+            }
+            if (reqTracer.ready(LOG, Level.INFO)) {
+                LOG.info(reqTracer
+                    .text("Request[${requestId}][${requestTime}][x-serverlet-batch-completed] - the batch has completed")
+                    .stringify());
+            }
+            return RoutineOutput.asSuccess(OpflowRpcBatch.encodeReplies(replies));
+        }
+        
         private static class RoutineOutput {
             private boolean failed;
+            private boolean expired;
             private String value;
             private String error;
             
@@ -699,7 +827,17 @@ public class OpflowServerlet implements AutoCloseable {
                 return that;
             }
             
+            public static RoutineOutput asExpired(String error) {
+                RoutineOutput that = asFailure(error);
+                that.expired = true;
+                return that;
+            }
+            
             public void fill(OpflowRpcAmqpResponse response) {
+                if (expired) {
+                    // nobody is waiting for the reply, the message is just acked
+                    return;
+                }
                 if (failed) {
                     response.emitFailed(error);
                 } else {
@@ -3,8 +3,11 @@ package com.devebot.opflow;
 import com.devebot.opflow.OpflowLogTracer.Level;
 import com.devebot.opflow.supports.OpflowDateTime;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -197,4 +200,266 @@ public class OpflowTimeout {
             timer.purge();
         }
     }
+    
+    public interface Handle {
+        boolean cancel();
+    }
+    
+    /**
+     * A hashed wheel timer: scheduling and cancelling a task are O(1) and a
+     * task expires at most one tick after its deadline. Since the timestamp
+     * of a Timeoutable is refreshed by its progress messages, an expired
+     * entry checks the latest timestamp and is rescheduled if it is still
+     * alive.
+     */
+    public static class Wheel implements AutoCloseable {
+        private final static Logger LOG = LoggerFactory.getLogger(Wheel.class);
+        private final OpflowLogTracer logTracer;
+        private final String wheelId;
+        private final long tick;
+        private final Bucket[] buckets;
+        private final int mask;
+        private final Queue<Entry> pendingEntries = new ConcurrentLinkedQueue<>();
+        private final Queue<Entry> cancelledEntries = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingCount = new AtomicLong();
+        private final long startTime;
+        private long tickCount = 0;
+        private Thread worker;
+        private volatile boolean running = false;
+        
+        public Wheel(long tick, int wheelSize, String wheelId) {
+            this.tick = (tick > 0) ? tick : 100;
+            int size = 1;
+            while (size < wheelSize && size < (1 << 16)) size <<= 1;
+            this.buckets = new Bucket[size];
+            for (int i=0; i<size; i++) {
+                this.buckets[i] = new Bucket();
+            }
+            this.mask = size - 1;
+            this.startTime = OpflowDateTime.getCurrentTime();
+            this.wheelId = (wheelId != null) ? wheelId : OpflowUUID.getBase64ID();
+            logTracer = OpflowLogTracer.ROOT.branch("wheelId", this.wheelId);
+            if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                    .put("tick", this.tick)
+                    .put("wheelSize", size)
+                    .text("Wheel[${wheelId}] has been created with tick: ${tick}, wheelSize: ${wheelSize}")
+                    .stringify());
+        }
+        
+        public long getTick() {
+            return tick;
+        }
+        
+        public long getPendingCount() {
+            return pendingCount.get();
+        }
+        
+        /**
+         * Schedules the timeout of the task; the timeout of the task itself
+         * takes precedence over the given default timeout.
+         */
+        public Handle schedule(Timeoutable task, long defaultTimeout) {
+            long _timeout = task.getTimeout();
+            if (_timeout <= 0) _timeout = defaultTimeout;
+            if (_timeout <= 0) {
+                return null;
+            }
+            Entry entry = new Entry(task, _timeout);
+            entry.deadline = task.getTimestamp() + _timeout + 1;
+            pendingCount.incrementAndGet();
+            pendingEntries.add(entry);
+            return entry;
+        }
+        
+        public synchronized void serve() {
+            if (running) return;
+            running = true;
+            worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (running) {
+                        long deadline = waitForNextTick();
+                        if (!running) break;
+                        removeCancelledEntries();
+                        transferPendingEntries();
+                        buckets[(int) (tickCount & mask)].expire(deadline);
+                        tickCount++;
+                    }
+                }
+            }, "Timer-" + OpflowUtil.extractClassName(Wheel.class));
+            worker.setDaemon(true);
+            worker.start();
+            if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                    .put("tick", tick)
+                    .text("Wheel[${wheelId}] has been started with tick: ${tick}")
+                    .stringify());
+        }
+        
+        @Override
+        public synchronized void close() {
+            if (logTracer.ready(LOG, Level.DEBUG)) LOG.debug(logTracer
+                    .text("Wheel[${wheelId}].close()")
+                    .stringify());
+            running = false;
+            if (worker != null) {
+                worker.interrupt();
+                worker = null;
+            }
+        }
+        
+        private long waitForNextTick() {
+            long deadline = startTime + (tickCount + 1) * tick;
+            while (running) {
+                long sleepTime = deadline - OpflowDateTime.getCurrentTime();
+                if (sleepTime <= 0) {
+                    break;
+                }
+                try {
+                    Thread.sleep(sleepTime);
+                } catch (InterruptedException ie) {
+                    if (!running) break;
+                }
+            }
+            return deadline;
+        }
+        
+        private void transferPendingEntries() {
+            // bound the work per tick so that a burst of requests cannot stall the wheel
+            for (int i=0; i<100000; i++) {
+                Entry entry = pendingEntries.poll();
+                if (entry == null) break;
+                if (entry.cancelled) {
+                    pendingCount.decrementAndGet();
+                    continue;
+                }
+                // the tick whose deadline is the first one not before the entry's deadline
+                long ticks = (entry.deadline - startTime + tick - 1) / tick - 1;
+                if (ticks < tickCount) ticks = tickCount;
+                entry.rounds = (ticks - tickCount) / buckets.length;
+                buckets[(int) (ticks & mask)].add(entry);
+            }
+        }
+        
+        private void removeCancelledEntries() {
+            while (true) {
+                Entry entry = cancelledEntries.poll();
+                if (entry == null) break;
+                if (entry.bucket != null) {
+                    entry.bucket.remove(entry);
+                    pendingCount.decrementAndGet();
+                }
+            }
+        }
+        
+        private void expireEntry(Entry entry) {
+            if (entry.cancelled) {
+                pendingCount.decrementAndGet();
+                return;
+            }
+            Timeoutable task = entry.task;
+            long current = OpflowDateTime.getCurrentTime();
+            long diff = current - task.getTimestamp();
+            if (diff <= entry.timeout) {
+                // the task has been refreshed since it was scheduled
+                entry.deadline = task.getTimestamp() + entry.timeout + 1;
+                pendingEntries.add(entry);
+                return;
+            }
+            pendingCount.decrementAndGet();
+            if (logTracer.ready(LOG, Level.TRACE)) LOG.trace(logTracer
+                    .put("diff", diff)
+                    .put("timeout", entry.timeout)
+                    .text("Wheel[${wheelId}] a task is timeout (diff: ${diff} > ${timeout}), rejected")
+                    .stringify());
+            try {
+                task.raiseTimeout();
+            } catch (RuntimeException exception) {
+                if (logTracer.ready(LOG, Level.ERROR)) LOG.error(logTracer
+                        .put("exceptionClass", exception.getClass().getName())
+                        .put("exceptionMessage", exception.getMessage())
+                        .text("Wheel[${wheelId}] raiseTimeout() has failed: ${exceptionMessage}")
+                        .stringify());
+            }
+        }
+        
+        private class Entry implements Handle {
+            private final Timeoutable task;
+            private final long timeout;
+            private long deadline;
+            private long rounds;
+            private volatile boolean cancelled = false;
+            private Bucket bucket;
+            private Entry prev;
+            private Entry next;
+            
+            Entry(Timeoutable task, long timeout) {
+                this.task = task;
+                this.timeout = timeout;
+            }
+            
+            @Override
+            public boolean cancel() {
+                if (cancelled) return false;
+                cancelled = true;
+                // the entry is unlinked from its bucket by the worker thread
+                cancelledEntries.add(this);
+                return true;
+            }
+        }
+        
+        private class Bucket {
+            private Entry head;
+            private Entry tail;
+            
+            void add(Entry entry) {
+                entry.bucket = this;
+                if (head == null) {
+                    head = tail = entry;
+                } else {
+                    tail.next = entry;
+                    entry.prev = tail;
+                    tail = entry;
+                }
+            }
+            
+            void remove(Entry entry) {
+                if (entry.prev != null) {
+                    entry.prev.next = entry.next;
+                }
+                if (entry.next != null) {
+                    entry.next.prev = entry.prev;
+                }
+                if (entry == head) {
+                    head = entry.next;
+                }
+                if (entry == tail) {
+                    tail = entry.prev;
+                }
+                entry.prev = null;
+                entry.next = null;
+                entry.bucket = null;
+            }
+            
+            void expire(long deadline) {
+                Entry entry = head;
+                while (entry != null) {
+                    Entry next = entry.next;
+                    if (entry.cancelled) {
+                        remove(entry);
+                        pendingCount.decrementAndGet();
+                    } else if (entry.rounds <= 0) {
+                        remove(entry);
+                        if (entry.deadline <= deadline) {
+                            expireEntry(entry);
+                        } else {
+                            pendingEntries.add(entry);
+                        }
+                    } else {
+                        entry.rounds--;
+                    }
+                    entry = next;
+                }
+            }
+        }
+    }
 }
@@ -207,6 +207,33 @@ public class OpflowUtil {
         }
     }
     
+    public static Long getRoutineDeadline(Map<String, Object> headers) {
+        return parseRoutineDeadline(headers.get(OpflowConstant.OPFLOW_REQ_HEADER_ROUTINE_DEADLINE));
+    }
+    
+    public static Long parseRoutineDeadline(Object deadline) {
+        if (deadline instanceof Number) {
+            return ((Number) deadline).longValue();
+        }
+        if (deadline != null) {
+            try {
+                return Long.parseLong(deadline.toString());
+            } catch (NumberFormatException exception) {}
+        }
+        return null;
+    }
+    
+    public static void setRoutineDeadline(Map<String, Object> headers, Long deadline) {
+        if (headers == null) return;
+        if (deadline != null && deadline > 0) {
+            headers.put(OpflowConstant.OPFLOW_REQ_HEADER_ROUTINE_DEADLINE, deadline);
+        }
+    }
+    
+    public static boolean isRoutineExpired(Long deadline) {
+        return deadline != null && deadline > 0 && deadline < System.currentTimeMillis();
+    }
+    
     public static Boolean getProgressEnabled(Map<String, Object> headers) {
         if (headers.get(CONST.AMQP_HEADER_PROGRESS_ENABLED) instanceof Boolean) {
             return (Boolean) headers.get(CONST.AMQP_HEADER_PROGRESS_ENABLED);
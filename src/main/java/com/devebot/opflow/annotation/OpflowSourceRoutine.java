@@ -15,4 +15,8 @@ public @interface OpflowSourceRoutine {
     String alias() default "";
     boolean isAsync() default false;
     boolean skipped() default false;
+    boolean hedged() default false;
+    long hedgingDelay() default 0;
+    boolean coalesced() default false;
+    long cacheTTL() default 0;
 }
@@ -96,6 +96,15 @@ public class OpflowJsonTool {
         }
     }
     
+    public static <T> T toObject(String json, Type type) {
+        try {
+            return GSON.fromJson(json, type);
+        }
+        catch (JsonSyntaxException e) {
+            throw new OpflowJsonSyntaxException(e);
+        }
+    }
+    
     public static <T> T toObject(InputStream inputStream, Class<T> type) {
         try {
             return toObject(new InputStreamReader(inputStream, "UTF-8"), type);